@@ -0,0 +1,59 @@
+package com.eticaret.eticaret_api.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductDto listelerinin Jackson ile byte dizisine yazılması (katalog
+ * önbelleğinin doldurma maliyeti).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProductDtoSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int size;
+
+    private ObjectWriter writer;
+    private ProductPageDto page;
+
+    @Setup
+    public void setUp() {
+        writer = new ObjectMapper().writerFor(ProductPageDto.class);
+        List<ProductDto> products = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ProductDto product = new ProductDto();
+            product.setId((long) i + 1);
+            product.setName("Ürün " + i);
+            product.setDescription("Açıklama metni " + i + " için örnek içerik");
+            product.setPrice(19.99 + i);
+            product.setStock(i % 50);
+            products.add(product);
+        }
+        page = new ProductPageDto(products, "aWQ6MTIz");
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,77 @@
+package com.eticaret.eticaret_api.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bir isteğe eklenen ölçüm maliyeti: sorgu sayaç filtresi (5 SQL ifadesi, 10
+ * entity), bir servis timer'ı ve bir JWT timer'ı. Sonuç, checkout'un
+ * milisaniye seviyesindeki gecikmesiyle karşılaştırılmak üzere ns cinsindendir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RequestMetricsOverheadBenchmark {
+
+    private static final String SQL = "select p1_0.id from product p1_0 where p1_0.id=?";
+
+    private final QueryCountingStatementInspector inspector = new QueryCountingStatementInspector(QueryBudgetMode.OFF, 3);
+    private final EntityLoadCountingInterceptor interceptor = new EntityLoadCountingInterceptor();
+
+    private RequestQueryMetricsFilter filter;
+    private Timer serviceTimer;
+    private Timer jwtTimer;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter = new RequestQueryMetricsFilter(registry);
+        serviceTimer = Timer.builder("service.method").tag("class", "OrderService").tag("method", "createOrderDtoFromCart")
+                .publishPercentileHistogram().register(registry);
+        jwtTimer = Timer.builder("security.jwt.validation").publishPercentileHistogram().register(registry);
+        request = new MockHttpServletRequest("POST", "/api/orders");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void uninstrumented(Blackhole blackhole) {
+        simulateRequest(blackhole);
+    }
+
+    @Benchmark
+    public void instrumented(Blackhole blackhole) throws Exception {
+        FilterChain chain = (servletRequest, servletResponse) -> jwtTimer.record(() -> serviceTimer.record(() -> simulateRequest(blackhole)));
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/orders");
+        filter.doFilter(request, response, chain);
+    }
+
+    private void simulateRequest(Blackhole blackhole) {
+        for (int i = 0; i < 5; i++) {
+            blackhole.consume(inspector.inspect(SQL));
+        }
+        for (int i = 0; i < 10; i++) {
+            blackhole.consume(interceptor.onLoad(null, null, null, null, null));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.eticaret.eticaret_api.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductSearchService'in arkasındaki ters indeksin sorgu gecikmesi ve
+ * uygulama açılışındaki indeks kurma süresi.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductSearchIndexBenchmark {
+
+    private static final String[] BRANDS = {"Arçelik", "Vestel", "Beko", "Karaca", "Paşabahçe", "Koton", "Mavi", "Şölen"};
+    private static final String[] NOUNS = {"çaydanlık", "tencere", "kahve makinesi", "ütü", "süpürge", "gömlek",
+            "kot pantolon", "bardak seti", "çikolata", "buzdolabı", "çamaşır makinesi", "kulaklık"};
+    private static final String[] ADJECTIVES = {"paslanmaz çelik", "ışıklı", "büyük boy", "kablosuz", "pamuklu",
+            "sessiz", "inox", "kırmızı", "siyah", "ekonomik"};
+    private static final String[] QUERIES = {"çaydanlık", "kahve makinesi", "kablosuz kulaklık", "inox tencere",
+            "siyah gömlek pamuklu", "arcelik supurge", "şölen çikolata büyük boy"};
+
+    @Param({"10000", "100000", "500000"})
+    private int products;
+
+    @Param({"false", "true"})
+    private boolean inStockOnly;
+
+    private String[] names;
+    private String[] descriptions;
+    private int[] stocks;
+    private ProductSearchIndex index;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        names = new String[products];
+        descriptions = new String[products];
+        stocks = new int[products];
+        for (int i = 0; i < products; i++) {
+            String brand = BRANDS[random.nextInt(BRANDS.length)];
+            String noun = NOUNS[random.nextInt(NOUNS.length)];
+            String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+            names[i] = brand + " " + adjective + " " + noun + " " + i;
+            descriptions[i] = adjective + " " + noun + ", " + brand + " güvencesiyle. "
+                    + ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " tasarım, günlük kullanım için ideal.";
+            // Ürünlerin yaklaşık beşte biri stokta yok
+            stocks[i] = random.nextInt(5) == 0 ? 0 : 1 + random.nextInt(100);
+        }
+        index = buildIndex();
+    }
+
+    @Benchmark
+    public List<SearchHit> search() {
+        String query = QUERIES[next++ % QUERIES.length];
+        return index.search(query, 20, inStockOnly);
+    }
+
+    /** Tüm kataloğu sıfırdan indeksler (ProductSearchService.buildIndex'in bellek tarafı). */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public ProductSearchIndex build() {
+        return buildIndex();
+    }
+
+    private ProductSearchIndex buildIndex() {
+        ProductSearchIndex fresh = new ProductSearchIndex();
+        for (int i = 0; i < products; i++) {
+            fresh.add(i + 1L, names[i], descriptions[i], stocks[i]);
+        }
+        return fresh;
+    }
+}
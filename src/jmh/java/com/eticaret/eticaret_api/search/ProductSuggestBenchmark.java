@@ -0,0 +1,112 @@
+package com.eticaret.eticaret_api.search;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductSuggestionDto;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
+import com.eticaret.eticaret_api.repository.OrderRepository;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Yaklaşık 1M ürün adı üzerinde öneri sorgusu ve trie kurulumunun süresi ve
+ * bellek ayırması. Profil -prof gc ile çalışır (jmh profili varsayılanı);
+ * gc.alloc.rate.norm sorgu başına ayrılan byte'ı verir:
+ * mvn -Pjmh test-compile exec:exec -Djmh.includes=ProductSuggest
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ProductSuggestBenchmark {
+
+    private static final String[] BRANDS = {"Arçelik", "Vestel", "Beko", "Karaca", "Paşabahçe", "Koton", "Mavi", "Şölen",
+            "Ülker", "Eti", "İpekyol", "Özdilek"};
+    private static final String[] NOUNS = {"çaydanlık", "tencere", "kahve makinesi", "ütü", "süpürge", "gömlek",
+            "kot pantolon", "bardak seti", "çikolata", "buzdolabı", "çamaşır makinesi", "kulaklık"};
+    private static final String[] PREFIXES = {"a", "ar", "arc", "Arçelik k", "ul", "ülker ç", "ipekyol gö",
+            "vestel süpürge 12", "ş", "solen cikolata 9"};
+
+    @Param({"1000000"})
+    private int names;
+
+    // Son trie kurulumundan sonra oluşturulmuş ürünler (eşik varsayılanı 5000)
+    @Param({"0", "5000"})
+    private int pending;
+
+    private ProductSuggestService service;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<Object[]> rows = new ArrayList<>(names);
+        for (int i = 0; i < names; i++) {
+            rows.add(new Object[]{i + 1L, randomName(random, i)});
+        }
+        ProductRepository productRepository = Mockito.mock(ProductRepository.class);
+        Mockito.when(productRepository.findNamesAfter(Mockito.anyLong(), Mockito.any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    int from = (int) (long) invocation.getArgument(0, Long.class);
+                    int size = invocation.getArgument(1, Pageable.class).getPageSize();
+                    return rows.subList(Math.min(from, rows.size()), Math.min(from + size, rows.size()));
+                });
+        OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
+        List<Object[]> popularity = new ArrayList<>();
+        for (int i = 0; i < names; i += 7) {
+            popularity.add(new Object[]{i + 1L, (long) random.nextInt(1000)});
+        }
+        Mockito.when(orderRepository.countOrderLinesByProduct()).thenReturn(popularity);
+
+        service = new ProductSuggestService(productRepository, orderRepository, Integer.MAX_VALUE);
+        service.refreshPopularity();
+
+        List<ProductDto> created = new ArrayList<>(pending);
+        for (int i = 0; i < pending; i++) {
+            ProductDto product = new ProductDto();
+            product.setId((long) names + i + 1);
+            product.setName(randomName(random, names + i));
+            created.add(product);
+        }
+        // Toplu import yerine tek tek gelen ürünler: her olay bekleyen dizisini yeniden kurar
+        for (int i = 0; i < created.size(); i += 100) {
+            service.onProductsCreated(new ProductsCreatedEvent(created.subList(i, Math.min(i + 100, created.size()))));
+        }
+    }
+
+    @Benchmark
+    public List<ProductSuggestionDto> suggest() {
+        return service.suggest(PREFIXES[next++ % PREFIXES.length], 10);
+    }
+
+    /** Tüm adları okuyup trie'yi yeniden kurar; -prof gc kurulumun toplam ayırmasını gösterir. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public void rebuild() {
+        service.refreshPopularity();
+    }
+
+    private static String randomName(Random random, int i) {
+        return BRANDS[random.nextInt(BRANDS.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + i;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eticaret.eticaret_api.security;
+
+import com.eticaret.eticaret_api.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token üretimi, önbelleksiz imza doğrulama + parse ve önbellekten doğrulama.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private AuthenticatedUser user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        String secret = Base64.getEncoder().encodeToString("benchmark-secret-key-of-at-least-32-bytes".getBytes());
+        jwtUtil = new JwtUtil(secret, 3_600_000L, new VerifiedTokenCache(10_000));
+        user = new AuthenticatedUser(42L, "benchmark-user", "ignored", 3, UserRole.CUSTOMER);
+        token = jwtUtil.generateToken(user);
+        jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtil.generateToken(user);
+    }
+
+    @Benchmark
+    public String parse() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public Claims validateCached() {
+        return jwtUtil.validateToken(token);
+    }
+}
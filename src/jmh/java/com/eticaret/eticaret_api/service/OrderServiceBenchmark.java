@@ -0,0 +1,70 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.dto.OrderDto;
+import com.eticaret.eticaret_api.entity.Order;
+import com.eticaret.eticaret_api.entity.OrderItem;
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Büyük siparişlerde OrderService.convertToDto maliyeti.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderServiceBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int items;
+
+    private OrderService orderService;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        orderService = new OrderService(null, null, null, null, null, null, null, null, null, null, null, new SimpleMeterRegistry());
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark-user");
+        order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        double total = 0.0;
+        for (int i = 0; i < items; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            OrderItem item = new OrderItem();
+            item.setId((long) i + 1);
+            item.setProduct(product);
+            item.setQuantity(1 + i % 3);
+            item.setPrice(10.0 + i);
+            order.addOrderItem(item);
+            total += item.getPrice() * item.getQuantity();
+        }
+        order.setTotalAmount(total);
+    }
+
+    @Benchmark
+    public OrderDto convertToDto() {
+        return orderService.convertToDto(order);
+    }
+}
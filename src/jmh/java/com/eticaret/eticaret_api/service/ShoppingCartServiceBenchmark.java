@@ -0,0 +1,71 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.dto.ShoppingCartDto;
+import com.eticaret.eticaret_api.entity.CartItem;
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.entity.ShoppingCart;
+import com.eticaret.eticaret_api.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sepet DTO dönüşümü ve toplam hesaplama; satır sayısı 1'den 500'e.
+ * Servisin bu yolları repository kullanmadığı için bağımlılıklar null verilir.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShoppingCartServiceBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    private int lines;
+
+    private ShoppingCartService shoppingCartService;
+    private ShoppingCart cart;
+
+    @Setup
+    public void setUp() {
+        shoppingCartService = new ShoppingCartService(null, null);
+        User user = new User();
+        user.setId(1L);
+        cart = new ShoppingCart();
+        cart.setId(1L);
+        cart.setUser(user);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product();
+            product.setId((long) i + 1);
+            product.setName("Product " + i);
+            product.setPrice(10.0 + i);
+            product.setStock(100);
+            CartItem item = new CartItem();
+            item.setId((long) i + 1);
+            item.setShoppingCart(cart);
+            item.setProduct(product);
+            item.setQuantity(1 + i % 5);
+            cart.getCartItems().add(item);
+        }
+    }
+
+    @Benchmark
+    public ShoppingCartDto convertToDto() {
+        return shoppingCartService.convertToDto(cart);
+    }
+
+    @Benchmark
+    public Double calculateTotalAmount() {
+        return shoppingCartService.calculateTotalAmount(cart);
+    }
+}
@@ -0,0 +1,141 @@
+package com.eticaret.eticaret_api.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tek bir kullanıcının huni oturumu: kayıt → giriş → sepete ekleme → sipariş →
+ * sipariş geçmişi. Bir adım başarısız olursa oturum orada biter.
+ *
+ * İlk isteğin gecikmesi planlanan varış anından ölçülür; böylece sistem
+ * yavaşladığında biriken bekleme de sonuçlara yansır (coordinated omission).
+ */
+final class FunnelSession implements Runnable {
+
+    static final String REGISTER = "POST /api/users/register";
+    static final String LOGIN = "POST /api/auth/login";
+    static final String ADD_TO_CART = "POST /api/cart/add";
+    static final String CHECKOUT = "POST /api/orders";
+    static final String ORDER_HISTORY = "GET /api/orders";
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final Map<String, EndpointStats> stats;
+    private final long[] productIds;
+    private final int cartLines;
+    private final long intendedStartNanos;
+    private final boolean measured;
+
+    FunnelSession(HttpClient client, String baseUrl, Map<String, EndpointStats> stats, long[] productIds,
+                  int cartLines, long intendedStartNanos, boolean measured) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.stats = stats;
+        this.productIds = productIds;
+        this.cartLines = cartLines;
+        this.intendedStartNanos = intendedStartNanos;
+        this.measured = measured;
+    }
+
+    @Override
+    public void run() {
+        String username = "lt-" + UUID.randomUUID().toString().substring(0, 18);
+        String password = "password123";
+        String registerBody = json(Map.of("username", username, "password", password, "email", username + "@loadtest.local"));
+        if (send(REGISTER, post("/api/users/register", registerBody, null), intendedStartNanos) == null) {
+            return;
+        }
+        String loginResponse = send(LOGIN, post("/api/auth/login", json(Map.of("username", username, "password", password)), null), System.nanoTime());
+        if (loginResponse == null) {
+            return;
+        }
+        String token = readJwt(loginResponse);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < cartLines; i++) {
+            long productId = productIds[random.nextInt(productIds.length)];
+            String body = json(Map.of("productId", productId, "quantity", 1));
+            if (send(ADD_TO_CART, post("/api/cart/add", body, token), System.nanoTime()) == null) {
+                return;
+            }
+        }
+        HttpRequest checkout = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        if (send(CHECKOUT, checkout, System.nanoTime()) == null) {
+            return;
+        }
+        HttpRequest history = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?page=0&size=20"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", "Bearer " + token)
+                .GET()
+                .build();
+        send(ORDER_HISTORY, history, System.nanoTime());
+    }
+
+    // 2xx dışındaki cevaplar ve istisnalar hata sayılır; başarılıysa gövde döner
+    private String send(String endpoint, HttpRequest request, long startNanos) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            long latency = System.nanoTime() - startNanos;
+            if (response.statusCode() / 100 != 2) {
+                if (measured) {
+                    endpointStats.recordError();
+                }
+                return null;
+            }
+            if (measured) {
+                endpointStats.recordSuccess(latency);
+            }
+            return response.body();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (Exception e) {
+            if (measured) {
+                endpointStats.recordError();
+            }
+            return null;
+        }
+    }
+
+    private HttpRequest post(String path, String body, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private static String json(Map<String, Object> body) {
+        try {
+            return JSON.writeValueAsString(body);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String readJwt(String loginResponse) {
+        try {
+            return JSON.readTree(loginResponse).get("jwt").asText();
+        } catch (Exception e) {
+            throw new IllegalStateException("Unexpected login response: " + loginResponse, e);
+        }
+    }
+}
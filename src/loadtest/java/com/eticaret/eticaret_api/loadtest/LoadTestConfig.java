@@ -0,0 +1,27 @@
+package com.eticaret.eticaret_api.loadtest;
+
+/**
+ * Yük testi ayarları; hepsi -Dloadtest.* sistem özellikleriyle değiştirilebilir.
+ *
+ * @param sessionsPerSecond   açık model varış hızı (saniyede başlayan huni oturumu)
+ * @param poissonArrivals     true ise varışlar arası süre üstel dağılımlı, değilse sabit
+ * @param warmupSeconds       ölçülmeyen ısınma süresi
+ * @param durationSeconds     ölçüm süresi
+ * @param products            tohumlanan ürün sayısı
+ * @param cartLines           oturum başına sepete eklenen satır sayısı
+ * @param virtualThreads      uygulamanın spring.threads.virtual.enabled değeri
+ */
+record LoadTestConfig(double sessionsPerSecond, boolean poissonArrivals, int warmupSeconds, int durationSeconds,
+                      int products, int cartLines, boolean virtualThreads) {
+
+    static LoadTestConfig fromSystemProperties() {
+        return new LoadTestConfig(
+                Double.parseDouble(System.getProperty("loadtest.rate", "20")),
+                !"constant".equals(System.getProperty("loadtest.arrivals", "poisson")),
+                Integer.getInteger("loadtest.warmup-seconds", 10),
+                Integer.getInteger("loadtest.duration-seconds", 60),
+                Integer.getInteger("loadtest.products", 1000),
+                Integer.getInteger("loadtest.cart-lines", 3),
+                Boolean.parseBoolean(System.getProperty("loadtest.virtual-threads", "false")));
+    }
+}
@@ -0,0 +1,150 @@
+package com.eticaret.eticaret_api.loadtest;
+
+import com.eticaret.eticaret_api.EticaretApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.net.http.HttpClient;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ödeme hunisi için uçtan uca yük testi. Gömülü PostgreSQL üzerinde uygulamayı
+ * rastgele bir portta ayağa kaldırır, ürünleri tohumlar ve açık modelde
+ * (varışlar cevaplardan bağımsız) huni oturumları başlatır.
+ *
+ * Çalıştırma: {@code mvn -Ploadtest test-compile exec:exec -Dloadtest.rate=50}
+ */
+public final class LoadTestMain {
+
+    private static final int SEED_STOCK = 1_000_000;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        QueryCounting queryCounting = new QueryCounting();
+
+        try (EmbeddedPostgres postgres = EmbeddedPostgres.builder().start()) {
+            ConfigurableApplicationContext context = new SpringApplicationBuilder(EticaretApplication.class)
+                    .initializers(queryCounting)
+                    .run("--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                            "--spring.datasource.username=postgres",
+                            "--spring.datasource.password=postgres",
+                            "--jwt.secret=" + randomSecret(),
+                            "--jwt.expiration=3600000",
+                            "--server.port=0",
+                            "--management.server.port=0",
+                            "--diagnostics.query-budget.mode=LOG",
+                            "--spring.threads.virtual.enabled=" + config.virtualThreads());
+            try {
+                String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                long[] productIds = seedProducts(context.getBean(JdbcTemplate.class), config.products());
+                run(config, baseUrl, productIds, queryCounting);
+            } finally {
+                context.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestConfig config, String baseUrl, long[] productIds, QueryCounting queryCounting)
+            throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (String endpoint : List.of(FunnelSession.REGISTER, FunnelSession.LOGIN, FunnelSession.ADD_TO_CART,
+                FunnelSession.CHECKOUT, FunnelSession.ORDER_HISTORY)) {
+            stats.put(endpoint, new EndpointStats());
+        }
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf(Locale.ROOT, "Load test: %.1f sessions/s (%s), warmup %ds, measure %ds, %d products, %d cart lines, virtual threads %s%n",
+                config.sessionsPerSecond(), config.poissonArrivals() ? "poisson" : "constant", config.warmupSeconds(),
+                config.durationSeconds(), productIds.length, config.cartLines(), config.virtualThreads());
+
+        long meanGapNanos = (long) (TimeUnit.SECONDS.toNanos(1) / config.sessionsPerSecond());
+        long start = System.nanoTime();
+        long measureStart = start + TimeUnit.SECONDS.toNanos(config.warmupSeconds());
+        long end = measureStart + TimeUnit.SECONDS.toNanos(config.durationSeconds());
+        long sessions = 0;
+        boolean measuring = false;
+        try (ExecutorService sessionExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long next = start;
+            while (next < end) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                // Ölçüm, planlanan varış anına göre başlar; ısınmada başlayan oturumlar sayılmaz
+                boolean measured = next >= measureStart;
+                if (measured && !measuring) {
+                    queryCounting.enable();
+                    measuring = true;
+                }
+                if (measured) {
+                    sessions++;
+                }
+                sessionExecutor.execute(new FunnelSession(client, baseUrl, stats, productIds, config.cartLines(), next, measured));
+                next += config.poissonArrivals() ? exponentialGap(meanGapNanos) : meanGapNanos;
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+        report(stats, queryCounting, sessions, elapsedSeconds);
+    }
+
+    private static long exponentialGap(long meanGapNanos) {
+        return (long) (-Math.log(1.0 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+    }
+
+    private static long[] seedProducts(JdbcTemplate jdbcTemplate, int count) {
+        List<Object[]> rows = new ArrayList<>(count);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{"Yük testi ürünü " + i, "Yük testi için oluşturuldu", 10.0 + random.nextInt(990), SEED_STOCK});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, description, price, stock) VALUES (nextval('product_seq'), ?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM product ORDER BY id", Long.class).stream()
+                .mapToLong(Long::longValue)
+                .toArray();
+    }
+
+    private static void report(Map<String, EndpointStats> stats, QueryCounting queryCounting, long sessions, double elapsedSeconds) {
+        System.out.printf(Locale.ROOT, "%n%-26s %8s %7s %7s %9s %9s %9s %9s %9s %9s %8s%n",
+                "endpoint", "count", "errors", "err%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "req/s", "stmt/req");
+        for (Map.Entry<String, EndpointStats> entry : stats.entrySet()) {
+            Histogram histogram = entry.getValue().histogram();
+            long errors = entry.getValue().errors();
+            long count = histogram.getTotalCount() + errors;
+            System.out.printf(Locale.ROOT, "%-26s %8d %7d %7.2f", entry.getKey(), count, errors, count == 0 ? 0.0 : 100.0 * errors / count);
+            for (double percentile : PERCENTILES) {
+                System.out.printf(Locale.ROOT, " %9.2f", histogram.getValueAtPercentile(percentile) / 1000.0);
+            }
+            System.out.printf(Locale.ROOT, " %9.2f %9.1f %8.2f%n", histogram.getMaxValue() / 1000.0, count / elapsedSeconds,
+                    queryCounting.statementsPerRequest(entry.getKey()));
+        }
+        System.out.printf(Locale.ROOT, "%nSessions started: %d (%.1f/s), background statements: %d%n",
+                sessions, sessions / elapsedSeconds, queryCounting.backgroundStatements());
+    }
+
+    private static String randomSecret() {
+        byte[] key = new byte[64];
+        new SecureRandom().nextBytes(key);
+        return Base64.getEncoder().encodeToString(key);
+    }
+}
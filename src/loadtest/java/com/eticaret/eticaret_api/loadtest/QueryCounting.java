@@ -0,0 +1,139 @@
+package com.eticaret.eticaret_api.loadtest;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.Ordered;
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Uygulamaya dışarıdan takılan sorgu sayacı. DataSource bağlantıları vekillenir
+ * ve her execute/executeBatch çağrısı o anda işlenen HTTP isteğine yazılır;
+ * istek dışındaki (@Async, zamanlanmış) sorgular "background" altında toplanır.
+ * Uygulama koduna dokunmaz.
+ */
+final class QueryCounting implements ApplicationContextInitializer<GenericApplicationContext> {
+
+    static final String BACKGROUND = "background";
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+    private static final ThreadLocal<long[]> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private final Map<String, LongAdder> statementsByEndpoint = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> requestsByEndpoint = new ConcurrentHashMap<>();
+    private volatile boolean enabled;
+
+    void enable() {
+        enabled = true;
+    }
+
+    double statementsPerRequest(String endpoint) {
+        LongAdder requests = requestsByEndpoint.get(endpoint);
+        LongAdder statements = statementsByEndpoint.get(endpoint);
+        if (requests == null || statements == null || requests.sum() == 0) {
+            return 0.0;
+        }
+        return (double) statements.sum() / requests.sum();
+    }
+
+    long backgroundStatements() {
+        LongAdder statements = statementsByEndpoint.get(BACKGROUND);
+        return statements != null ? statements.sum() : 0L;
+    }
+
+    @Override
+    public void initialize(GenericApplicationContext context) {
+        context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return countingDataSource(dataSource);
+                }
+                return bean;
+            }
+        });
+        context.registerBean("queryCountingFilter", FilterRegistrationBean.class, () -> {
+            FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(requestFilter());
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+            return registration;
+        });
+    }
+
+    private Filter requestFilter() {
+        return (request, response, chain) -> {
+            long[] counter = new long[1];
+            CURRENT_REQUEST.set(counter);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                CURRENT_REQUEST.remove();
+                if (enabled) {
+                    HttpServletRequest httpRequest = (HttpServletRequest) request;
+                    String endpoint = httpRequest.getMethod() + " " + httpRequest.getRequestURI();
+                    requestsByEndpoint.computeIfAbsent(endpoint, e -> new LongAdder()).increment();
+                    statementsByEndpoint.computeIfAbsent(endpoint, e -> new LongAdder()).add(counter[0]);
+                }
+            }
+        };
+    }
+
+    private void countStatement() {
+        long[] counter = CURRENT_REQUEST.get();
+        if (counter != null) {
+            counter[0]++;
+        } else if (enabled) {
+            statementsByEndpoint.computeIfAbsent(BACKGROUND, e -> new LongAdder()).increment();
+        }
+    }
+
+    private DataSource countingDataSource(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    return result instanceof Connection connection ? countingConnection(connection) : result;
+                });
+    }
+
+    private Connection countingConnection(Connection target) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    String name = method.getName();
+                    if (result instanceof Statement statement && (name.endsWith("Statement") || name.equals("prepareCall"))) {
+                        return countingStatement(statement, method.getReturnType());
+                    }
+                    return result;
+                });
+    }
+
+    private Object countingStatement(Statement target, Class<?> type) {
+        return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> {
+                    if (EXECUTE_METHODS.contains(method.getName())) {
+                        countStatement();
+                    }
+                    return invoke(target, method, args);
+                });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        }
+    }
+}
@@ -3,16 +3,24 @@ package com.eticaret.eticaret_api;
 import io.github.cdimascio.dotenv.Dotenv;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @SpringBootApplication
+@EnableAsync
+@EnableScheduling
 public class EticaretApplication {
 
     public static void main(String[] args) {
         Dotenv.configure().ignoreIfMissing().systemProperties().load();
-        SpringApplication.run(EticaretApplication.class, args);
+        SpringApplication application = new SpringApplication(EticaretApplication.class);
+        // Başlangıç adımlarının süreleri yönetim portunda /actuator/startup ile okunur
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
     @Bean
     public PasswordEncoder passwordEncoder() {
@@ -0,0 +1,105 @@
+package com.eticaret.eticaret_api.cache;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import lombok.Getter;
+import java.util.Arrays;
+
+/**
+ * Önceden JSON'a çevrilmiş (ve yeterince büyükse gzip'lenmiş) katalog sayfası.
+ * Sayfadaki ürün id'leri ve sayfanın sıralama anahtarındaki son noktası,
+ * yazmalarda hangi sayfaların bayatladığını bulmak için saklanır.
+ *
+ * Yeni ürünler sayfa okunurken denetlenir: checkedVersion, sayfanın hangi katalog
+ * sürümüne kadarki oluşturmalardan etkilenmediği bilinen son sürümdür.
+ */
+public class CachedCatalogPage {
+
+    @Getter
+    private final byte[] body;
+    @Getter
+    private final byte[] gzipBody;
+    @Getter
+    private final String eTag;
+    @Getter
+    private final String gzipETag;
+
+    private final CatalogQuery query;
+    private final long[] productIds;
+    // Son sayfada sınırsızdır; sonradan eklenen her eşleşen ürün bu sayfaya düşebilir
+    private final boolean bounded;
+    private final double lastPrice;
+    private final long lastId;
+    private volatile long checkedVersion;
+
+    CachedCatalogPage(byte[] body, byte[] gzipBody, String eTag, CatalogQuery query,
+                      long[] productIds, boolean bounded, double lastPrice, long lastId, long builtVersion) {
+        this.body = body;
+        this.gzipBody = gzipBody;
+        this.eTag = eTag;
+        this.gzipETag = gzipBody != null ? eTag.substring(0, eTag.length() - 1) + "-gz\"" : null;
+        this.query = query;
+        this.productIds = productIds;
+        this.bounded = bounded;
+        this.lastPrice = lastPrice;
+        this.lastId = lastId;
+        this.checkedVersion = builtVersion;
+        Arrays.sort(this.productIds);
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(eTag) || (gzipETag != null && tag.equals(gzipETag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int weight() {
+        return body.length + (gzipBody != null ? gzipBody.length : 0);
+    }
+
+    CatalogQuery query() {
+        return query;
+    }
+
+    long checkedVersion() {
+        return checkedVersion;
+    }
+
+    // Eşzamanlı okuyucular farklı sürümler yazabilir; geri gitmesi sadece bir denetimi tekrarlatır
+    void markChecked(long version) {
+        if (version > checkedVersion) {
+            checkedVersion = version;
+        }
+    }
+
+    long[] productIds() {
+        return productIds;
+    }
+
+    /**
+     * Yeni ürün bu sayfanın filtrelerine uyuyor ve sıralamada sayfanın sonundan
+     * önce geliyorsa sayfa içeriği kayar. Cursor'ın alt sınırı saklanmadığı için
+     * sonraki sayfalar da bayat sayılır; id sıralamasında yeni ürünler sona
+     * düştüğünden pratikte yalnızca son sayfa düşer.
+     */
+    boolean isAffectedBy(ProductDto product) {
+        double price = product.getPrice() != null ? product.getPrice() : 0.0;
+        int stock = product.getStock() != null ? product.getStock() : 0;
+        if (price < query.minPrice() || price > query.maxPrice() || (query.inStockOnly() && stock < 1)) {
+            return false;
+        }
+        if (!bounded) {
+            return true;
+        }
+        if (query.sortByPrice()) {
+            return price < lastPrice || (price == lastPrice && product.getId() < lastId);
+        }
+        return product.getId() < lastId;
+    }
+}
@@ -0,0 +1,12 @@
+package com.eticaret.eticaret_api.cache;
+
+/**
+ * Katalog sayfası isteğinin önbellek anahtarı. Eksik parametreler varsayılan
+ * değerleriyle doldurulur; böylece aynı sayfa tek bir girdiye düşer.
+ */
+record CatalogQuery(String cursor, int size, double minPrice, double maxPrice, boolean inStockOnly, String sort) {
+
+    boolean sortByPrice() {
+        return "price".equals(sort);
+    }
+}
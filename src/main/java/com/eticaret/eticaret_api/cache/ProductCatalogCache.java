@@ -0,0 +1,291 @@
+package com.eticaret.eticaret_api.cache;
+
+import com.eticaret.eticaret_api.dto.CatalogCacheStatsDto;
+import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductPageDto;
+import com.eticaret.eticaret_api.event.ProductStockChangedEvent;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
+import com.eticaret.eticaret_api.service.ProductService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GET /api/products sayfalarını serileştirilmiş byte dizisi olarak tutar.
+ * Önbellekteki bir sayfa için If-None-Match eşleşmesi veritabanına ve
+ * Jackson'a gitmeden 304 ile cevaplanır.
+ *
+ * Geçersiz kılma olay tabanlıdır ve sayfaları taramaz: stok değişikliğinde ürün
+ * id'sinden sayfalara tutulan indeksle yalnızca ilgili ürünü içeren sayfalar
+ * silinir. Yeni ürünler sınırlı bir oluşturma kaydına eklenir; önbellekteki sayfa
+ * okunurken kendi sürümünden sonraki kayıtlardan etkileniyorsa yeniden kurulur.
+ * Kayıt taşarsa (toplu import) daha eski sürümlü sayfalar bayat sayılır.
+ * Her geçersiz kılma katalog sürümünü artırır; ETag, sayfanın kurulduğu
+ * sürümden türetilir. Kurulum sürerken aynı sayfayı etkileyen bir yazma
+ * olursa sonuç önbelleğe konmaz.
+ */
+@Component
+public class ProductCatalogCache {
+
+    // Oluşturma kaydında tutulan en fazla ürün; sayfa başına okuma denetimi bununla sınırlıdır
+    private static final int MAX_LOGGED_CREATIONS = 1024;
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final int gzipMinBytes;
+    private final Cache<CatalogQuery, CachedCatalogPage> pages;
+
+    // Açılış zamanından başlar; yeniden başlatma sonrası eski ETag'ler yanlışlıkla eşleşmez
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    // Ürün bazlı son geçersiz kılma; kurulum sırasında araya giren yazmaları yakalamak için
+    private final Cache<Long, Change> productChanges;
+    private volatile Change lastCreation = new Change(0L, 0L);
+    private volatile CreationLog creations = CreationLog.EMPTY;
+    // Ürün id'si → ürünü içeren sayfalar; kayıtlar sayfa önbellekten düşünce temizlenir
+    private final ConcurrentHashMap<Long, Set<CachedCatalogPage>> pagesByProductId = new ConcurrentHashMap<>();
+    // Replikadan okunan sayfa bu kadar eski olabilir; bu süre içindeki yazmalardan etkilenen sayfa önbelleğe girmez
+    private final long replicaLagMillis;
+    private final Object invalidationLock = new Object();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    @Autowired
+    public ProductCatalogCache(ProductService productService,
+                               ObjectMapper objectMapper,
+                               @Value("${product.catalog-cache.max-bytes:67108864}") long maxBytes,
+                               @Value("${product.catalog-cache.gzip-min-bytes:1024}") int gzipMinBytes,
+                               @Value("${datasource.routing.enabled:false}") boolean routingEnabled,
+                               @Value("${datasource.routing.read-your-writes-ms:5000}") long readYourWritesMillis) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.gzipMinBytes = gzipMinBytes;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((CatalogQuery query, CachedCatalogPage page) -> page.weight())
+                .removalListener((CatalogQuery query, CachedCatalogPage page, RemovalCause cause) -> unindex(page))
+                .build();
+        this.productChanges = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .build();
+        this.replicaLagMillis = routingEnabled ? readYourWritesMillis : 0L;
+    }
+
+    public CachedCatalogPage getPage(String cursor, Integer size, Double minPrice, Double maxPrice,
+                                     boolean inStockOnly, String sort) {
+        CatalogQuery query = new CatalogQuery(cursor,
+                size != null ? size : ProductService.DEFAULT_PAGE_SIZE,
+                minPrice != null ? minPrice : 0.0,
+                maxPrice != null ? maxPrice : Double.MAX_VALUE,
+                inStockOnly,
+                sort != null ? sort.toLowerCase() : "id");
+        CachedCatalogPage cached = pages.getIfPresent(query);
+        if (cached != null) {
+            if (isCurrent(cached)) {
+                hits.increment();
+                return cached;
+            }
+            if (pages.asMap().remove(query, cached)) {
+                invalidations.increment();
+            }
+        }
+        misses.increment();
+
+        long startVersion = version.get();
+        long startMillis = System.currentTimeMillis();
+        ProductPageDto page = productService.getProducts(query.cursor(), query.size(), query.minPrice(),
+                query.maxPrice(), query.inStockOnly(), query.sort());
+        CachedCatalogPage built = serialize(query, page, startVersion);
+        synchronized (invalidationLock) {
+            if (!changedSince(built, startVersion, startMillis)) {
+                // Önce indekslenir; sayfa hemen tahliye edilirse temizleme kaydı bulur
+                index(built);
+                pages.put(query, built);
+            }
+        }
+        return built;
+    }
+
+    public void recordServed(CachedCatalogPage page, boolean gzip, boolean notModifiedResponse) {
+        if (notModifiedResponse) {
+            notModified.increment();
+        } else {
+            bytesServed.add(gzip ? page.getGzipBody().length : page.getBody().length);
+        }
+    }
+
+    public CatalogCacheStatsDto getStats() {
+        long cachedBytes = pages.asMap().values().stream().mapToLong(CachedCatalogPage::weight).sum();
+        return new CatalogCacheStatsDto(hits.sum(), misses.sum(), notModified.sum(), bytesServed.sum(),
+                pages.estimatedSize(), cachedBytes, invalidations.sum());
+    }
+
+    // Commit sonrası eşzamanlı çalışır; yazan isteğin cevabı dönmeden önbellek temizlenmiş olur
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        synchronized (invalidationLock) {
+            Change change = new Change(version.incrementAndGet(), System.currentTimeMillis());
+            for (Long productId : event.getProductIds()) {
+                productChanges.put(productId, change);
+                Set<CachedCatalogPage> affected = pagesByProductId.remove(productId);
+                if (affected == null) {
+                    continue;
+                }
+                for (CachedCatalogPage page : affected) {
+                    if (pages.asMap().remove(page.query(), page)) {
+                        invalidations.increment();
+                    }
+                }
+            }
+        }
+    }
+
+    // Sayfalar burada taranmaz; etkilenenler okunurken isCurrent ile bulunur
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        synchronized (invalidationLock) {
+            long createdVersion = version.incrementAndGet();
+            lastCreation = new Change(createdVersion, System.currentTimeMillis());
+            creations = creations.plus(createdVersion, event.getProducts());
+        }
+    }
+
+    // Sayfa, kurulduğu (veya son denetlendiği) sürümden sonra oluşturulan ürünlerden etkilenmiyorsa güncel
+    private boolean isCurrent(CachedCatalogPage page) {
+        CreationLog current = creations;
+        long checked = page.checkedVersion();
+        if (checked >= current.latest()) {
+            return true;
+        }
+        if (current.horizon() > checked) {
+            return false;
+        }
+        for (Creation creation : current.entries()) {
+            if (creation.version() <= checked) {
+                continue;
+            }
+            for (ProductDto product : creation.products()) {
+                if (page.isAffectedBy(product)) {
+                    return false;
+                }
+            }
+        }
+        page.markChecked(current.latest());
+        return true;
+    }
+
+    // Ekleme ve temizleme aynı anahtar üzerinde compute ile yapılır; boşalan küme yarışta kaybolmaz
+    private void index(CachedCatalogPage page) {
+        for (long productId : page.productIds()) {
+            pagesByProductId.compute(productId, (id, indexed) -> {
+                Set<CachedCatalogPage> set = indexed != null ? indexed : new HashSet<>();
+                set.add(page);
+                return set;
+            });
+        }
+    }
+
+    private void unindex(CachedCatalogPage page) {
+        if (page == null) {
+            return;
+        }
+        for (long productId : page.productIds()) {
+            pagesByProductId.computeIfPresent(productId, (id, indexed) -> {
+                indexed.remove(page);
+                return indexed.isEmpty() ? null : indexed;
+            });
+        }
+    }
+
+    private boolean changedSince(CachedCatalogPage page, long startVersion, long startMillis) {
+        if (lastCreation.isAfter(startVersion, startMillis - replicaLagMillis)) {
+            return true;
+        }
+        for (long productId : page.productIds()) {
+            Change change = productChanges.getIfPresent(productId);
+            if (change != null && change.isAfter(startVersion, startMillis - replicaLagMillis)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Change(long version, long atMillis) {
+
+        boolean isAfter(long otherVersion, long otherMillis) {
+            return version > otherVersion || atMillis > otherMillis;
+        }
+    }
+
+    private record Creation(long version, List<ProductDto> products) {
+    }
+
+    // Değişmez; her oluşturmada kopyalanır. horizon, kayıttan düşürülen en yeni oluşturmanın sürümüdür
+    private record CreationLog(long horizon, long latest, List<Creation> entries, int productCount) {
+
+        static final CreationLog EMPTY = new CreationLog(0L, 0L, List.of(), 0);
+
+        CreationLog plus(long createdVersion, List<ProductDto> products) {
+            List<Creation> kept = new ArrayList<>(entries);
+            kept.add(new Creation(createdVersion, List.copyOf(products)));
+            int count = productCount + products.size();
+            long newHorizon = horizon;
+            while (count > MAX_LOGGED_CREATIONS && !kept.isEmpty()) {
+                Creation dropped = kept.remove(0);
+                count -= dropped.products().size();
+                newHorizon = dropped.version();
+            }
+            return new CreationLog(newHorizon, createdVersion, List.copyOf(kept), count);
+        }
+    }
+
+    private CachedCatalogPage serialize(CatalogQuery query, ProductPageDto page, long builtAt) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(page);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog page", e);
+        }
+        byte[] gzipBody = body.length >= gzipMinBytes ? gzip(body) : null;
+
+        List<ProductDto> items = page.getItems();
+        long[] productIds = new long[items.size()];
+        for (int i = 0; i < items.size(); i++) {
+            productIds[i] = items.get(i).getId();
+        }
+        ProductDto last = items.isEmpty() ? null : items.get(items.size() - 1);
+        String eTag = "\"" + Long.toString(builtAt, 36) + "-" + Integer.toHexString(query.hashCode()) + "\"";
+        return new CachedCatalogPage(body, gzipBody, eTag, query, productIds, page.getNextCursor() != null,
+                last != null ? last.getPrice() : 0.0, last != null ? last.getId() : 0L, builtAt);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toByteArray();
+    }
+}
@@ -0,0 +1,32 @@
+package com.eticaret.eticaret_api.cache;
+
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.event.ProductStockChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Stok düşümleri Hibernate'i atlayıp JDBC batch ile yazıldığından READ_WRITE
+ * stratejisi bu değişiklikleri göremez. Etkilenen ürünler commit sonrası
+ * ikinci seviye önbellekten silinir; bir sonraki findById güncel satırı okur.
+ */
+@Component
+public class ProductEntityCacheEvictor {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public ProductEntityCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        jakarta.persistence.Cache cache = entityManagerFactory.getCache();
+        for (Long productId : event.getProductIds()) {
+            cache.evict(Product.class, productId);
+        }
+    }
+}
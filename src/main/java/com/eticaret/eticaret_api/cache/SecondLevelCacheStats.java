@@ -0,0 +1,47 @@
+package com.eticaret.eticaret_api.cache;
+
+import com.eticaret.eticaret_api.dto.CacheRegionStatsDto;
+import org.springframework.stereotype.Component;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * İkinci seviye önbellek bölgelerinin isabet oranlarını JCache istatistik
+ * MBean'lerinden okur. Caffeine bölge başına sayaçları application.conf'taki
+ * monitoring.statistics ile tutar; hibernate.generate_statistics gerekmez.
+ */
+@Component
+public class SecondLevelCacheStats {
+
+    private static final String STATISTICS_PATTERN = "javax.cache:type=CacheStatistics,*";
+
+    private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    public Map<String, CacheRegionStatsDto> getRegionStats() {
+        Map<String, CacheRegionStatsDto> regions = new TreeMap<>();
+        for (ObjectName name : mBeanServer.queryNames(objectName(STATISTICS_PATTERN), null)) {
+            try {
+                long hits = (Long) mBeanServer.getAttribute(name, "CacheHits");
+                long misses = (Long) mBeanServer.getAttribute(name, "CacheMisses");
+                long puts = (Long) mBeanServer.getAttribute(name, "CachePuts");
+                double hitRatio = hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+                regions.put(name.getKeyProperty("Cache"), new CacheRegionStatsDto(hits, misses, puts, hitRatio));
+            } catch (JMException e) {
+                // Bölge okuma sırasında kapatıldıysa atlanır
+            }
+        }
+        return regions;
+    }
+
+    private static ObjectName objectName(String pattern) {
+        try {
+            return new ObjectName(pattern);
+        } catch (JMException e) {
+            throw new IllegalStateException("Invalid JCache statistics pattern: " + pattern, e);
+        }
+    }
+}
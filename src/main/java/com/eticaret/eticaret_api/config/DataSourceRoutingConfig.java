@@ -0,0 +1,44 @@
+package com.eticaret.eticaret_api.config;
+
+import com.eticaret.eticaret_api.datasource.DataSourceRoutingProperties;
+import com.eticaret.eticaret_api.datasource.ReadWriteRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import javax.sql.DataSource;
+
+/**
+ * datasource.routing.enabled=true olduğunda spring.datasource primary olarak
+ * kalır, datasource.routing.replicas altındaki her kayıt için ayrı bir Hikari
+ * havuzu açılır. Kapalıyken Spring Boot'un varsayılan DataSource'u kullanılır.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnProperty(prefix = "datasource.routing", name = "enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(HikariDataSource primaryDataSource,
+                                                       DataSourceRoutingProperties properties) {
+        return ReadWriteRoutingDataSource.create(primaryDataSource, properties);
+    }
+
+    // Gerçek bağlantı ilk sorguda alınır; o anda transaction'ın salt-okunur olduğu bilinir
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+}
@@ -0,0 +1,63 @@
+package com.eticaret.eticaret_api.config;
+
+import com.eticaret.eticaret_api.metrics.EntityLoadCountingInterceptor;
+import com.eticaret.eticaret_api.metrics.QueryBudgetInterceptor;
+import com.eticaret.eticaret_api.metrics.QueryBudgetMode;
+import com.eticaret.eticaret_api.metrics.QueryCountingStatementInspector;
+import com.eticaret.eticaret_api.metrics.RequestQueryMetricsFilter;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Gecikme ve sorgu metrikleri. Controller'lar http.server.requests ile,
+ * @Timed işaretli servisler TimedAspect ile ölçülür; istek başına SQL ifadesi
+ * ve yüklenen entity sayısı Hibernate kancalarıyla toplanır. Hepsi yönetim
+ * portundaki /actuator/prometheus ve /actuator/metrics üzerinden okunur.
+ *
+ * Aynı sayaçlar sorgu bütçesi denetimini de besler: diagnostics.query-budget.mode
+ * LOG (staging) veya FAIL (testler) iken @QueryBudget sınırları ve tekrarlanan
+ * SELECT'ler denetlenir.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingHibernateCustomizer(
+            @Value("${diagnostics.query-budget.mode:OFF}") QueryBudgetMode mode,
+            @Value("${diagnostics.query-budget.repeated-select-threshold:3}") int repeatedSelectThreshold) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    new QueryCountingStatementInspector(mode, repeatedSelectThreshold));
+            hibernateProperties.put(AvailableSettings.INTERCEPTOR, new EntityLoadCountingInterceptor());
+        };
+    }
+
+    // Spring Security filtresinden hemen önce: login sırasındaki kullanıcı sorgusu da sayılır
+    @Bean
+    public FilterRegistrationBean<RequestQueryMetricsFilter> requestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RequestQueryMetricsFilter> registration =
+                new FilterRegistrationBean<>(new RequestQueryMetricsFilter(meterRegistry));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor());
+    }
+}
@@ -0,0 +1,73 @@
+package com.eticaret.eticaret_api.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * JFR'ın jdk.VirtualThreadPinned olayını dinler: sanal thread synchronized blok
+ * veya native çağrı içinde bloklandığında taşıyıcı thread'i bırakamaz. Eşiği
+ * aşan her olay için en üstteki uygulama çerçevesi sayılır ve ilk görülüşte
+ * yığın izi loglanır.
+ */
+public class PinnedThreadMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream;
+    private final LongAdder pinnedCount = new LongAdder();
+    private final Map<String, LongAdder> pinnedBySite = new ConcurrentHashMap<>();
+
+    PinnedThreadMonitor(long thresholdMillis) {
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    public long getPinnedCount() {
+        return pinnedCount.sum();
+    }
+
+    public Map<String, Long> getPinnedBySite() {
+        Map<String, Long> snapshot = new ConcurrentHashMap<>();
+        pinnedBySite.forEach((site, count) -> snapshot.put(site, count.sum()));
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    private void record(RecordedEvent event) {
+        pinnedCount.increment();
+        String site = applicationFrame(event);
+        LongAdder counter = pinnedBySite.computeIfAbsent(site, s -> {
+            log.warn("Virtual thread pinned for {} ms at {}\n{}", event.getDuration().toMillis(), s, event.getStackTrace());
+            return new LongAdder();
+        });
+        counter.increment();
+    }
+
+    private static String applicationFrame(RecordedEvent event) {
+        if (event.getStackTrace() == null || event.getStackTrace().getFrames().isEmpty()) {
+            return "unknown";
+        }
+        for (RecordedFrame frame : event.getStackTrace().getFrames()) {
+            String type = frame.getMethod().getType().getName();
+            if (type.startsWith("com.eticaret.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        RecordedFrame top = event.getStackTrace().getFrames().get(0);
+        return top.getMethod().getType().getName() + "." + top.getMethod().getName();
+    }
+}
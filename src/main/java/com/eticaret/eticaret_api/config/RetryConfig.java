@@ -0,0 +1,22 @@
+package com.eticaret.eticaret_api.config;
+
+import com.eticaret.eticaret_api.metrics.OptimisticLockConflictListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Checkout ve sepet değişikliklerinde iyimser kilit çakışmaları için yeniden deneme.
+ * Retry advisor'ı transaction advisor'ından önce çalışır; böylece her deneme yeni
+ * bir transaction'da, güncel satırları okuyarak yapılır.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+
+    @Bean
+    public OptimisticLockConflictListener optimisticLockConflictListener(MeterRegistry meterRegistry) {
+        return new OptimisticLockConflictListener(meterRegistry);
+    }
+}
@@ -0,0 +1,45 @@
+package com.eticaret.eticaret_api.config;
+
+import com.eticaret.eticaret_api.datasource.AdmissionControlledDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import javax.sql.DataSource;
+
+/**
+ * spring.threads.virtual.enabled=true iken Tomcat istekleri, @Async işleri ve
+ * zamanlanmış görevler sanal thread'lerde çalışır (Spring Boot bunları kendisi
+ * ayarlar). Bu sınıf o moda özgü iki parçayı ekler: uygulamanın DataSource'u
+ * önüne bağlantı kabul kapısı ve taşıyıcı thread'e sabitlenme (pinning) izleyicisi.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public static BeanPostProcessor connectionAdmissionPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                    return bean;
+                }
+                int poolSize = environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10);
+                return new AdmissionControlledDataSource(dataSource,
+                        environment.getProperty("datasource.admission.max-concurrent", Integer.class, poolSize),
+                        environment.getProperty("datasource.admission.max-waiting", Integer.class, 1000),
+                        environment.getProperty("datasource.admission.acquire-timeout-ms", Long.class, 2000L));
+            }
+        };
+    }
+
+    @Bean(destroyMethod = "close")
+    public PinnedThreadMonitor pinnedThreadMonitor(Environment environment) {
+        return new PinnedThreadMonitor(environment.getProperty("diagnostics.pinned-threads.threshold-ms", Long.class, 20L));
+    }
+}
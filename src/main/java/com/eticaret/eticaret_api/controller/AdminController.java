@@ -0,0 +1,132 @@
+package com.eticaret.eticaret_api.controller;
+
+import com.eticaret.eticaret_api.cache.ProductCatalogCache;
+import com.eticaret.eticaret_api.cache.SecondLevelCacheStats;
+import com.eticaret.eticaret_api.config.PinnedThreadMonitor;
+import com.eticaret.eticaret_api.datasource.AdmissionControlledDataSource;
+import com.eticaret.eticaret_api.dto.ProductConflictStatsDto;
+import com.eticaret.eticaret_api.dto.SalesGranularity;
+import com.eticaret.eticaret_api.exception.SalesRebuildInProgressException;
+import com.eticaret.eticaret_api.metrics.OptimisticLockConflictListener;
+import com.eticaret.eticaret_api.reporting.SalesRollupService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final int MAX_SALES_RANGE_DAYS = 3660;
+    // Yeniden hesaplama her gün için özet tablolarını kilitler; daha uzun aralıklar parça parça istenir
+    private static final int MAX_REBUILD_RANGE_DAYS = 92;
+
+    private final ProductCatalogCache productCatalogCache;
+    private final SecondLevelCacheStats secondLevelCacheStats;
+    private final ObjectProvider<PinnedThreadMonitor> pinnedThreadMonitor;
+    private final DataSource dataSource;
+    private final OptimisticLockConflictListener conflictListener;
+    private final SalesRollupService salesRollupService;
+
+    @Autowired
+    public AdminController(ProductCatalogCache productCatalogCache,
+                           SecondLevelCacheStats secondLevelCacheStats,
+                           ObjectProvider<PinnedThreadMonitor> pinnedThreadMonitor,
+                           DataSource dataSource,
+                           OptimisticLockConflictListener conflictListener,
+                           SalesRollupService salesRollupService) {
+        this.productCatalogCache = productCatalogCache;
+        this.secondLevelCacheStats = secondLevelCacheStats;
+        this.pinnedThreadMonitor = pinnedThreadMonitor;
+        this.dataSource = dataSource;
+        this.conflictListener = conflictListener;
+        this.salesRollupService = salesRollupService;
+    }
+
+    @GetMapping("/caches")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = Map.of(
+                "catalog", productCatalogCache.getStats(),
+                "secondLevel", secondLevelCacheStats.getRegionStats());
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    // Sanal thread modu kapalıyken sadece "virtualThreads": false döner
+    @GetMapping("/threads")
+    public ResponseEntity<Map<String, Object>> getThreadStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PinnedThreadMonitor monitor = pinnedThreadMonitor.getIfAvailable();
+        stats.put("virtualThreads", monitor != null);
+        if (monitor != null) {
+            stats.put("pinnedCount", monitor.getPinnedCount());
+            stats.put("pinnedBySite", monitor.getPinnedBySite());
+        }
+        if (dataSource instanceof AdmissionControlledDataSource admission) {
+            stats.put("admissionAvailablePermits", admission.getAvailablePermits());
+            stats.put("admissionWaiting", admission.getWaiting());
+            stats.put("admissionRejected", admission.getRejected());
+        }
+        return new ResponseEntity<>(stats, HttpStatus.OK);
+    }
+
+    // En çok iyimser kilit çakışması yaşayan ürünler (yeniden denemeler dahil)
+    @GetMapping("/conflicts")
+    public ResponseEntity<List<ProductConflictStatsDto>> getProductConflicts(@RequestParam(defaultValue = "20") int limit) {
+        return new ResponseEntity<>(conflictListener.getMostContendedProducts(Math.max(1, Math.min(limit, 100))), HttpStatus.OK);
+    }
+
+    // Varsayılan aralık son 30 gün; "to" günü dahil. productId verilirse kovalar o ürünün satışlarıdır
+    @GetMapping("/sales")
+    public ResponseEntity<?> getSales(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "DAY") SalesGranularity granularity,
+            @RequestParam(required = false) Long productId,
+            @RequestParam(defaultValue = "10") int top) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= MAX_SALES_RANGE_DAYS) {
+            Map<String, String> errorResponse = Map.of("error", "from must not be after to and the range must be under " + MAX_SALES_RANGE_DAYS + " days.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("from", start);
+        report.put("to", end);
+        report.put("granularity", granularity);
+        report.put("buckets", salesRollupService.getSales(start, end, granularity, productId));
+        if (productId == null) {
+            report.put("topProducts", salesRollupService.getTopProducts(start, end, Math.max(1, Math.min(top, 100))));
+        }
+        return new ResponseEntity<>(report, HttpStatus.OK);
+    }
+
+    // Geri doldurma / düzeltme: aralıktaki özetler siparişlerden yeniden hesaplanır
+    @PostMapping("/sales/rebuild")
+    public ResponseEntity<?> rebuildSales(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (from.isAfter(to) || ChronoUnit.DAYS.between(from, to) >= MAX_REBUILD_RANGE_DAYS) {
+            Map<String, String> errorResponse = Map.of("error", "from must not be after to and the range must be under " + MAX_REBUILD_RANGE_DAYS + " days.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        try {
+            return new ResponseEntity<>(salesRollupService.rebuild(from, to), HttpStatus.OK);
+        } catch (SalesRebuildInProgressException srie) {
+            Map<String, String> errorResponse = Map.of("error", srie.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        }
+    }
+}
\ No newline at end of file
@@ -2,8 +2,9 @@ package com.eticaret.eticaret_api.controller;
 
 import com.eticaret.eticaret_api.dto.LoginRequest;
 import com.eticaret.eticaret_api.dto.LoginResponse;
+import com.eticaret.eticaret_api.metrics.QueryBudget;
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
 import com.eticaret.eticaret_api.security.JwtUtil;
-import com.eticaret.eticaret_api.security.UserDetailsServiceImpl;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -11,7 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,20 +24,20 @@ import java.util.Map;
 public class AuthenticationController {
 
     private final AuthenticationManager authenticationManager;
-    private final UserDetailsServiceImpl userDetailsService;
     private final JwtUtil jwtUtil;
 
     @Autowired
-    public AuthenticationController(AuthenticationManager authenticationManager, UserDetailsServiceImpl userDetailsService, JwtUtil jwtUtil) {
+    public AuthenticationController(AuthenticationManager authenticationManager, JwtUtil jwtUtil) {
         this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
         this.jwtUtil = jwtUtil;
     }
 
+    @QueryBudget(maxStatements = 3)
     @PostMapping("/login")
     public ResponseEntity<Object> login(@Valid @RequestBody LoginRequest loginRequest) {
+        final Authentication authentication;
         try {
-            authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+            authentication = authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
         } catch (BadCredentialsException e) {
             Map<String, String> errorResponse = Map.of("error", "Invalid username or password");
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
@@ -44,8 +45,9 @@ public class AuthenticationController {
             Map<String, String> errorResponse = Map.of("error", "Login failed: " + e.getMessage());
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
-        final UserDetails userDetails = userDetailsService.loadUserByUsername(loginRequest.getUsername());
-        final String jwt = jwtUtil.generateToken(userDetails);
+        // Doğrulama sırasında yüklenen kullanıcı tekrar sorgulanmadan kullanılır
+        final AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        final String jwt = jwtUtil.generateToken(user);
         return ResponseEntity.ok(new LoginResponse(jwt));
     }
 }
\ No newline at end of file
@@ -1,93 +1,119 @@
 package com.eticaret.eticaret_api.controller;
 
+import com.eticaret.eticaret_api.dto.CheckoutStatusDto;
 import com.eticaret.eticaret_api.dto.OrderDto;
-import com.eticaret.eticaret_api.dto.OrderItemDto;
-import com.eticaret.eticaret_api.entity.Order;
-import com.eticaret.eticaret_api.entity.User;
-import com.eticaret.eticaret_api.repository.UserRepository;
+import com.eticaret.eticaret_api.exception.CheckoutQueueFullException;
+import com.eticaret.eticaret_api.metrics.QueryBudget;
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
+import com.eticaret.eticaret_api.service.AsyncCheckoutService;
+import com.eticaret.eticaret_api.service.IdempotencyService;
 import com.eticaret.eticaret_api.service.OrderService;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import java.net.URI;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
+    private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderService orderService;
-    private final UserRepository userRepository;
+    private final IdempotencyService idempotencyService;
+    private final AsyncCheckoutService asyncCheckoutService;
 
     @Autowired
-    public OrderController(OrderService orderService, UserRepository userRepository) {
+    public OrderController(OrderService orderService, IdempotencyService idempotencyService,
+                           AsyncCheckoutService asyncCheckoutService) {
         this.orderService = orderService;
-        this.userRepository = userRepository;
+        this.idempotencyService = idempotencyService;
+        this.asyncCheckoutService = asyncCheckoutService;
     }
 
+    // Sipariş satırları IDENTITY id ile tek tek INSERT edilir. 50 satırlık sepet, Idempotency-Key ile:
+    // anahtar SELECT/INSERT/UPDATE, kullanıcı, sepet, sipariş, outbox, sepet DELETE ve versiyon
+    // 9 ifade + 50 satır = 59 (QueryBudgetIntegrationTest)
+    @QueryBudget(maxStatements = 60)
     @PostMapping
     public ResponseEntity<?> createOrder(
-            @AuthenticationPrincipal UserDetails userDetails) {
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        if (idempotencyKey != null && (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH)) {
+            Map<String, String> errorResponse = Map.of("error", "Idempotency-Key must be 1-" + MAX_IDEMPOTENCY_KEY_LENGTH + " characters.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
         try {
-            User currentUser = findUserByUsername(userDetails.getUsername());
-            Order createdOrderEntity = orderService.createOrderFromCart(currentUser.getId());
-            OrderDto createdOrderDto = convertToDto(createdOrderEntity);
+            // Asenkron modda sipariş kuyruğa alınır; istemci durum adresini sorgular
+            if (asyncCheckoutService.isEnabled()) {
+                CheckoutStatusDto ticket = asyncCheckoutService.submit(currentUser.getId(), idempotencyKey);
+                return ResponseEntity.accepted()
+                        .location(URI.create("/api/orders/" + ticket.getTicketId() + "/status"))
+                        .body(ticket);
+            }
+            OrderDto createdOrderDto = idempotencyKey == null
+                    ? orderService.createOrderDtoFromCart(currentUser.getId(), null)
+                    : idempotencyService.createOrderOnce(currentUser.getId(), idempotencyKey);
             return new ResponseEntity<>(createdOrderDto, HttpStatus.CREATED);
 
         } catch (EntityNotFoundException enfe) {
             Map<String, String> errorResponse = Map.of("error", enfe.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (CheckoutQueueFullException cqfe) {
+            Map<String, String> errorResponse = Map.of("error", cqfe.getMessage());
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse);
+        } catch (OptimisticLockingFailureException olfe) {
+            Map<String, String> errorResponse = Map.of("error", "The request conflicted with a concurrent update, please retry.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (RuntimeException ex) {
             Map<String, String> errorResponse = Map.of("error", ex.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
 
+    @QueryBudget(maxStatements = 4)
     @GetMapping
     public ResponseEntity<?> getOrdersByUser(
-            @AuthenticationPrincipal UserDetails userDetails) {
-        try {
-            User currentUser = findUserByUsername(userDetails.getUsername());
-            List<OrderDto> orders = orderService.getOrdersDtoByUserId(currentUser.getId());
-            return new ResponseEntity<>(orders, HttpStatus.OK);
-        } catch (EntityNotFoundException enfe) {
-            Map<String, String> errorResponse = Map.of("error", enfe.getMessage());
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (page < 0 || size < 1) {
+            Map<String, String> errorResponse = Map.of("error", "page must be >= 0 and size must be >= 1.");
+            return ResponseEntity.badRequest().body(errorResponse);
         }
+        // "to" günü dahil: bir sonraki günün başlangıcına kadar olan siparişler
+        List<OrderDto> orders = orderService.getOrdersDtoByUserId(
+                currentUser.getId(),
+                page,
+                Math.min(size, MAX_PAGE_SIZE),
+                from != null ? from.atStartOfDay() : null,
+                to != null ? to.plusDays(1).atStartOfDay() : null);
+        return new ResponseEntity<>(orders, HttpStatus.OK);
     }
 
-    private User findUserByUsername(String username) {
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
-    }
-
-    private OrderDto convertToDto(Order order) {
-        OrderDto dto = new OrderDto();
-        dto.setId(order.getId());
-        dto.setOrderDate(order.getOrderDate());
-        dto.setTotalAmount(order.getTotalAmount());
-        if (order.getUser() != null) {
-            dto.setUserId(order.getUser().getId());
-            dto.setUsername(order.getUser().getUsername());
-        }
-        if (order.getOrderItems() != null) {
-            dto.setItems(order.getOrderItems().stream()
-                    .map(item -> { // OrderItemDto mapping
-                        OrderItemDto itemDto = new OrderItemDto();
-                        itemDto.setQuantity(item.getQuantity());
-                        itemDto.setPrice(item.getPrice());
-                        if (item.getProduct() != null) {
-                            itemDto.setProductId(item.getProduct().getId());
-                            itemDto.setProductName(item.getProduct().getName());
-                        }
-                        return itemDto;
-                    }).collect(Collectors.toList()));
-        }
-        return dto;
+    // Bilet durumu bellekten okunur, veritabanına gidilmez
+    @QueryBudget(maxStatements = 1)
+    @GetMapping("/{ticketId}/status")
+    public ResponseEntity<?> getCheckoutStatus(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @PathVariable String ticketId) {
+        return asyncCheckoutService.getStatus(currentUser.getId(), ticketId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Checkout not found: " + ticketId)));
     }
 }
\ No newline at end of file
@@ -1,33 +1,139 @@
 package com.eticaret.eticaret_api.controller;
 
+import com.eticaret.eticaret_api.cache.CachedCatalogPage;
+import com.eticaret.eticaret_api.cache.ProductCatalogCache;
 import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductImportResultDto;
+import com.eticaret.eticaret_api.dto.ProductSuggestionDto;
+import com.eticaret.eticaret_api.metrics.QueryBudget;
+import com.eticaret.eticaret_api.search.ProductSearchService;
+import com.eticaret.eticaret_api.search.ProductSuggestService;
+import com.eticaret.eticaret_api.service.ProductImportService;
 import com.eticaret.eticaret_api.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
+    private static final int MAX_SEARCH_RESULTS = 100;
+
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final ProductSearchService productSearchService;
+    private final ProductSuggestService productSuggestService;
+    private final ProductCatalogCache productCatalogCache;
 
     @Autowired
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             ProductSearchService productSearchService,
+                             ProductSuggestService productSuggestService,
+                             ProductCatalogCache productCatalogCache) {
         this.productService = productService;
+        this.productImportService = productImportService;
+        this.productSearchService = productSearchService;
+        this.productSuggestService = productSuggestService;
+        this.productCatalogCache = productCatalogCache;
     }
 
+    @QueryBudget(maxStatements = 3)
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        List<ProductDto> products = productService.getAllProducts();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<Object> getProducts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            CachedCatalogPage page = productCatalogCache.getPage(cursor, size, minPrice, maxPrice, inStock, sort);
+            boolean gzip = page.getGzipBody() != null && acceptEncoding != null && acceptEncoding.contains("gzip");
+            String eTag = gzip ? page.getGzipETag() : page.getETag();
+            if (page.matches(ifNoneMatch)) {
+                productCatalogCache.recordServed(page, gzip, true);
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .header(HttpHeaders.ETAG, eTag)
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                        .build();
+            }
+            productCatalogCache.recordServed(page, gzip, false);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(HttpHeaders.ETAG, eTag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (gzip) {
+                return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(page.getGzipBody());
+            }
+            return response.body(page.getBody());
+        } catch (IllegalArgumentException ex) {
+            Map<String, String> errorResponse = Map.of("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+
+    @QueryBudget(maxStatements = 2)
+    @GetMapping("/search")
+    public ResponseEntity<Object> searchProducts(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean inStock) {
+        if (query.isBlank() || limit < 1) {
+            Map<String, String> errorResponse = Map.of("error", "q cannot be blank and limit must be at least 1.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        List<ProductDto> results = productSearchService.search(query, Math.min(limit, MAX_SEARCH_RESULTS), inStock);
+        return new ResponseEntity<>(results, HttpStatus.OK);
     }
 
+    @QueryBudget(maxStatements = 2)
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestProducts(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (prefix.isBlank() || limit < 1) {
+            Map<String, String> errorResponse = Map.of("error", "prefix cannot be blank and limit must be at least 1.");
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+        List<ProductSuggestionDto> suggestions = productSuggestService.suggest(
+                prefix.stripLeading(), Math.min(limit, productSuggestService.maxSuggestions()));
+        return new ResponseEntity<>(suggestions, HttpStatus.OK);
+    }
+
+    @QueryBudget(maxStatements = 3)
     @PostMapping
     public ResponseEntity<ProductDto> createProduct(@Valid @RequestBody ProductDto productDto) {
         ProductDto createdProduct = productService.createProduct(productDto);
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
-}
\ No newline at end of file
+
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<Object> importProducts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            ProductImportResultDto result = "csv".equalsIgnoreCase(mediaType.getSubtype())
+                    ? productImportService.importCsv(body)
+                    : productImportService.importNdjson(body);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (IllegalArgumentException ex) {
+            Map<String, String> errorResponse = Map.of("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        } catch (IOException ex) {
+            Map<String, String> errorResponse = Map.of("error", "Import stream could not be read: " + ex.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
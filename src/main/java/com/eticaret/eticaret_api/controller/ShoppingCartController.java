@@ -1,17 +1,18 @@
 package com.eticaret.eticaret_api.controller;
 
 import com.eticaret.eticaret_api.dto.AddItemRequestDto;
+import com.eticaret.eticaret_api.dto.BulkCartUpdateRequestDto;
 import com.eticaret.eticaret_api.dto.ShoppingCartDto;
-import com.eticaret.eticaret_api.entity.User;
-import com.eticaret.eticaret_api.repository.UserRepository;
+import com.eticaret.eticaret_api.metrics.QueryBudget;
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
 import com.eticaret.eticaret_api.service.ShoppingCartService;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.Map;
@@ -24,84 +25,90 @@ public class ShoppingCartController {
     private static final String ERROR_KEY = "error";
 
     private final ShoppingCartService shoppingCartService;
-    private final UserRepository userRepository;
 
     @Autowired
-    public ShoppingCartController(ShoppingCartService shoppingCartService, UserRepository userRepository) {
+    public ShoppingCartController(ShoppingCartService shoppingCartService) {
         this.shoppingCartService = shoppingCartService;
-        this.userRepository = userRepository;
     }
 
+    @QueryBudget(maxStatements = 6)
     @PostMapping("/add")
     public ResponseEntity<Object> addProductToCart(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @Valid @RequestBody AddItemRequestDto addItemRequestDto) {
         try {
-            User currentUser = findUserByUsername(userDetails.getUsername());
-            shoppingCartService.addProductToCart(
+            ShoppingCartDto cartDto = shoppingCartService.addProductToCart(
                     currentUser.getId(),
                     addItemRequestDto.getProductId(),
                     addItemRequestDto.getQuantity());
-
-            Optional<ShoppingCartDto> cartDtoOpt = shoppingCartService.getCartDtoByUserId(currentUser.getId());
-            if (cartDtoOpt.isPresent()) {
-                return new ResponseEntity<>(cartDtoOpt.get(), HttpStatus.OK);
-            } else {
-                Map<String, String> errorResponse = Map.of(ERROR_KEY, "Could not retrieve cart after adding item.");
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-            }
+            return new ResponseEntity<>(cartDto, HttpStatus.OK);
         } catch (EntityNotFoundException enfe) {
             Map<String, String> errorResponse = Map.of(ERROR_KEY, enfe.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (OptimisticLockingFailureException olfe) {
+            Map<String, String> errorResponse = Map.of(ERROR_KEY, "The request conflicted with a concurrent update, please retry.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (RuntimeException ex) {
             Map<String, String> errorResponse = Map.of(ERROR_KEY, ex.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
 
-    @GetMapping
-    public ResponseEntity<Object> getCartByUserId(
-            @AuthenticationPrincipal UserDetails userDetails) {
+    // Yeni satırlar IDENTITY id ile tek tek INSERT edilir. 100 yeni ürünlük istek: sepet ve ürün
+    // SELECT'leri, 100 INSERT, toplu UPDATE/DELETE ve sepet versiyonu = 105 (QueryBudgetIntegrationTest)
+    @QueryBudget(maxStatements = 110)
+    @PatchMapping
+    public ResponseEntity<Object> updateCart(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @Valid @RequestBody BulkCartUpdateRequestDto bulkCartUpdateRequestDto) {
         try {
-            User currentUser = findUserByUsername(userDetails.getUsername());
-            Optional<ShoppingCartDto> cartDtoOpt = shoppingCartService.getCartDtoByUserId(currentUser.getId());
-
-            if (cartDtoOpt.isPresent()){
-                return new ResponseEntity<>(cartDtoOpt.get(), HttpStatus.OK);
-            } else {
-                Map<String, String> errorResponse = Map.of(ERROR_KEY, "Shopping cart not found for this user.");
-                return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
-            }
+            ShoppingCartDto cartDto = shoppingCartService.applyOperations(
+                    currentUser.getId(),
+                    bulkCartUpdateRequestDto.getOperations());
+            return new ResponseEntity<>(cartDto, HttpStatus.OK);
         } catch (EntityNotFoundException enfe) {
             Map<String, String> errorResponse = Map.of(ERROR_KEY, enfe.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (OptimisticLockingFailureException olfe) {
+            Map<String, String> errorResponse = Map.of(ERROR_KEY, "The request conflicted with a concurrent update, please retry.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (RuntimeException ex) {
+            Map<String, String> errorResponse = Map.of(ERROR_KEY, ex.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
         }
     }
 
+    @QueryBudget(maxStatements = 3)
+    @GetMapping
+    public ResponseEntity<Object> getCartByUserId(
+            @AuthenticationPrincipal AuthenticatedUser currentUser) {
+        Optional<ShoppingCartDto> cartDtoOpt = shoppingCartService.getCartDtoByUserId(currentUser.getId());
+
+        if (cartDtoOpt.isPresent()){
+            return new ResponseEntity<>(cartDtoOpt.get(), HttpStatus.OK);
+        } else {
+            Map<String, String> errorResponse = Map.of(ERROR_KEY, "Shopping cart not found for this user.");
+            return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @QueryBudget(maxStatements = 4)
     @DeleteMapping("/remove/{productId}")
     public ResponseEntity<Object> removeProductFromCart(
-            @AuthenticationPrincipal UserDetails userDetails,
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
             @PathVariable Long productId) {
         try {
-            User currentUser = findUserByUsername(userDetails.getUsername());
-            shoppingCartService.removeProductFromCart(currentUser.getId(), productId);
-            Optional<ShoppingCartDto> cartDtoOpt = shoppingCartService.getCartDtoByUserId(currentUser.getId());
-            if (cartDtoOpt.isPresent()) {
-                return new ResponseEntity<>(cartDtoOpt.get(), HttpStatus.OK);
-            } else {
-                Map<String, String> errorResponse = Map.of(ERROR_KEY, "Could not retrieve cart after removing item.");
-                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-            }
+            ShoppingCartDto cartDto = shoppingCartService.removeProductFromCart(currentUser.getId(), productId);
+            return new ResponseEntity<>(cartDto, HttpStatus.OK);
         } catch (EntityNotFoundException enfe) {
             Map<String, String> errorResponse = Map.of(ERROR_KEY, enfe.getMessage());
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (OptimisticLockingFailureException olfe) {
+            Map<String, String> errorResponse = Map.of(ERROR_KEY, "The request conflicted with a concurrent update, please retry.");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
         } catch (RuntimeException ex) {
             Map<String, String> errorResponse = Map.of(ERROR_KEY, ex.getMessage());
             return ResponseEntity.badRequest().body(errorResponse);
         }
     }
-
-    private User findUserByUsername(String username) {
-        return userRepository.findByUsername(username).orElseThrow(() -> new EntityNotFoundException("User not found with username: " + username + ". Please ensure the user exists."));
-    }
 }
\ No newline at end of file
@@ -1,30 +1,57 @@
 package com.eticaret.eticaret_api.controller;
 
+import com.eticaret.eticaret_api.dto.ChangePasswordRequest;
+import com.eticaret.eticaret_api.dto.LoginResponse;
 import com.eticaret.eticaret_api.entity.User;
+import com.eticaret.eticaret_api.metrics.QueryBudget;
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
+import com.eticaret.eticaret_api.security.JwtUtil;
 import com.eticaret.eticaret_api.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/users")
 public class UserController {
 
     private final UserService userService;
+    private final JwtUtil jwtUtil;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, JwtUtil jwtUtil) {
         this.userService = userService;
+        this.jwtUtil = jwtUtil;
     }
 
+    @QueryBudget(maxStatements = 5)
     @PostMapping("/register")
     public ResponseEntity<User> registerUser(@Valid @RequestBody User newUser) {
         User savedUser = userService.registerUser(newUser);
         return new ResponseEntity<>(savedUser, HttpStatus.CREATED);
     }
-}
\ No newline at end of file
+
+    @QueryBudget(maxStatements = 4)
+    @PutMapping("/me/password")
+    public ResponseEntity<Object> changePassword(
+            @AuthenticationPrincipal AuthenticatedUser currentUser,
+            @Valid @RequestBody ChangePasswordRequest request) {
+        try {
+            User updatedUser = userService.changePassword(currentUser.getId(), request.getCurrentPassword(), request.getNewPassword());
+            // Eski token'lar artık geçersiz; istemci yeni token ile devam eder
+            AuthenticatedUser principal = new AuthenticatedUser(updatedUser.getId(), updatedUser.getUsername(), null, updatedUser.getTokenVersion(), updatedUser.getRole());
+            return ResponseEntity.ok(new LoginResponse(jwtUtil.generateToken(principal)));
+        } catch (IllegalArgumentException ex) {
+            Map<String, String> errorResponse = Map.of("error", ex.getMessage());
+            return ResponseEntity.badRequest().body(errorResponse);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.eticaret.eticaret_api.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * datasource.routing.* ayarları. Replika listesi boşsa yönlendirme devreye
+ * girmez ve uygulama tek primary ile çalışır.
+ */
+@Data
+@ConfigurationProperties(prefix = "datasource.routing")
+public class DataSourceRoutingProperties {
+
+    private boolean enabled = false;
+    private ReplicaSelectionStrategy strategy = ReplicaSelectionStrategy.ROUND_ROBIN;
+    // Yazan kullanıcının okumaları bu süre boyunca primary'ye gider (replikasyon gecikmesinin üst sınırı)
+    private long readYourWritesMs = 5000;
+    // Bağlantı hatası veren replika bu süre boyunca atlanır
+    private long replicaDownCooldownMs = 10000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        private long connectionTimeoutMs = 1000;
+    }
+}
@@ -0,0 +1,147 @@
+package com.eticaret.eticaret_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Salt-okunur transaction'ları replikalara, diğer her şeyi primary'ye gönderir.
+ * Karar bağlantı alınırken verilir; bu yüzden LazyConnectionDataSourceProxy
+ * arkasında kullanılmalıdır (JpaTransactionManager bağlantıyı transaction
+ * salt-okunur işaretlenmeden önce ister).
+ *
+ * Replika seçimi round-robin veya en az aktif bağlantı ile yapılır. Bağlantı
+ * veremeyen replika bir süre atlanır; uygun replika kalmazsa primary kullanılır.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    private final DataSource primary;
+    private final List<ReplicaPool> replicas;
+    private final ReplicaSelectionStrategy strategy;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public static ReadWriteRoutingDataSource create(DataSource primary, DataSourceRoutingProperties properties) {
+        List<ReplicaPool> replicas = new ArrayList<>();
+        int index = 0;
+        for (DataSourceRoutingProperties.Replica replica : properties.getReplicas()) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + index);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(replica.getConnectionTimeoutMs());
+            dataSource.setReadOnly(true);
+            // Replika açılışta kapalıysa uygulama yine ayağa kalkar; ilk istekte denenir
+            dataSource.setInitializationFailTimeout(-1);
+            replicas.add(new ReplicaPool(dataSource.getPoolName(), dataSource, properties.getReplicaDownCooldownMs()));
+            index++;
+        }
+        return new ReadWriteRoutingDataSource(primary, replicas, properties.getStrategy(),
+                new ReadYourWritesTracker(properties.getReadYourWritesMs()));
+    }
+
+    ReadWriteRoutingDataSource(DataSource primary, List<ReplicaPool> replicas,
+                               ReplicaSelectionStrategy strategy, ReadYourWritesTracker readYourWritesTracker) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.strategy = strategy;
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    // Kimlik bilgileri hedef havuza aynen geçer; havuz desteklemiyorsa kendi hatasını fırlatır
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(ReplicaPool::close);
+    }
+
+    private Connection route(ConnectionOpener opener) throws SQLException {
+        Long userId = ReadYourWritesTracker.currentUserId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registerWriteTracking(userId);
+            return opener.open(primary);
+        }
+        if (readYourWritesTracker.hasRecentWrite(userId)) {
+            return opener.open(primary);
+        }
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            ReplicaPool replica = selectReplica();
+            if (replica == null) {
+                break;
+            }
+            try {
+                return opener.open(replica.getDataSource());
+            } catch (SQLFeatureNotSupportedException e) {
+                // Replika ayakta; istenen bağlantı türü desteklenmiyor
+                throw e;
+            } catch (SQLException e) {
+                replica.markDown();
+                log.warn("Replica {} unavailable, skipping it for a while", replica.getName(), e);
+            }
+        }
+        return opener.open(primary);
+    }
+
+    private ReplicaPool selectReplica() {
+        if (strategy == ReplicaSelectionStrategy.LEAST_CONNECTIONS) {
+            ReplicaPool best = null;
+            int bestActive = Integer.MAX_VALUE;
+            for (ReplicaPool replica : replicas) {
+                if (replica.isAvailable() && replica.activeConnections() < bestActive) {
+                    best = replica;
+                    bestActive = replica.activeConnections();
+                }
+            }
+            return best;
+        }
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaPool replica = replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size()));
+            if (replica.isAvailable()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // Yazma transaction'ı commit edilince kullanıcı kısa bir süre primary'den okur
+    private void registerWriteTracking(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                readYourWritesTracker.recordWrite(userId);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+        Connection open(DataSource target) throws SQLException;
+    }
+}
@@ -0,0 +1,43 @@
+package com.eticaret.eticaret_api.datasource;
+
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import java.time.Duration;
+
+/**
+ * Son yazma zamanını kullanıcı bazında tutar. Yazma transaction'ı commit
+ * edildikten sonraki kısa süre içinde aynı kullanıcının salt-okunur
+ * transaction'ları primary'ye yönlendirilir; böylece replikasyon gecikmesi
+ * kullanıcının kendi yazdığını görmesini engellemez.
+ */
+class ReadYourWritesTracker {
+
+    private final Cache<Long, Boolean> recentWriters;
+
+    ReadYourWritesTracker(long windowMillis) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMillis))
+                .build();
+    }
+
+    void recordWrite(Long userId) {
+        if (userId != null) {
+            recentWriters.put(userId, Boolean.TRUE);
+        }
+    }
+
+    boolean hasRecentWrite(Long userId) {
+        return userId != null && recentWriters.getIfPresent(userId) != null;
+    }
+
+    static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        return null;
+    }
+}
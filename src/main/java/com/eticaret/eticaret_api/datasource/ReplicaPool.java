@@ -0,0 +1,48 @@
+package com.eticaret.eticaret_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import javax.sql.DataSource;
+
+/**
+ * Tek bir replika havuzu ve sağlık durumu. Bağlantı hatasında havuz bir süre
+ * "down" işaretlenir; süre dolunca bir sonraki istek yeniden dener.
+ */
+class ReplicaPool {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    private final long downCooldownMillis;
+    private volatile long downUntilMillis;
+
+    ReplicaPool(String name, HikariDataSource dataSource, long downCooldownMillis) {
+        this.name = name;
+        this.dataSource = dataSource;
+        this.downCooldownMillis = downCooldownMillis;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isAvailable() {
+        return System.currentTimeMillis() >= downUntilMillis;
+    }
+
+    void markDown() {
+        downUntilMillis = System.currentTimeMillis() + downCooldownMillis;
+    }
+
+    int activeConnections() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool != null ? pool.getActiveConnections() : 0;
+    }
+
+    DataSource getDataSource() {
+        return dataSource;
+    }
+
+    void close() {
+        dataSource.close();
+    }
+}
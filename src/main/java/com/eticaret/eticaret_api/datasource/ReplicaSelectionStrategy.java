@@ -0,0 +1,6 @@
+package com.eticaret.eticaret_api.datasource;
+
+public enum ReplicaSelectionStrategy {
+    ROUND_ROBIN,
+    LEAST_CONNECTIONS
+}
@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.util.List;
+
+@Data
+public class BulkCartUpdateRequestDto {
+
+    @NotEmpty(message = "Operations cannot be empty")
+    @Size(max = 100, message = "At most 100 operations can be sent at once")
+    private List<@Valid CartOperationDto> operations;
+}
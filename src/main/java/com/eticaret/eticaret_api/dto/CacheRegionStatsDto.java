@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheRegionStatsDto {
+    private long hits;
+    private long misses;
+    private long puts;
+    private double hitRatio;
+}
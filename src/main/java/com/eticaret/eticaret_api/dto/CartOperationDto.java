@@ -0,0 +1,19 @@
+package com.eticaret.eticaret_api.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CartOperationDto {
+
+    @NotNull(message = "Operation cannot be null")
+    private CartOperationType op;
+
+    @NotNull(message = "Product ID cannot be null")
+    private Long productId;
+
+    // ADD için en az 1; SET_QUANTITY için 0 satırı siler; REMOVE için kullanılmaz
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private Integer quantity;
+}
@@ -0,0 +1,7 @@
+package com.eticaret.eticaret_api.dto;
+
+public enum CartOperationType {
+    ADD,
+    SET_QUANTITY,
+    REMOVE
+}
@@ -0,0 +1,18 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogCacheStatsDto {
+    private long hits;
+    private long misses;
+    private long notModified;
+    private long bytesServed;
+    private long entries;
+    private long cachedBytes;
+    private long invalidations;
+}
@@ -0,0 +1,14 @@
+package com.eticaret.eticaret_api.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ChangePasswordRequest {
+    @NotBlank(message = "Current password cannot be blank")
+    private String currentPassword;
+    @NotBlank(message = "New password cannot be blank")
+    @Size(min = 6, message = "Password must be at least 6 characters")
+    private String newPassword;
+}
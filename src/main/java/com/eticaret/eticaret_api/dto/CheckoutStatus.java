@@ -0,0 +1,8 @@
+package com.eticaret.eticaret_api.dto;
+
+public enum CheckoutStatus {
+    QUEUED,
+    PROCESSING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutStatusDto {
+    private String ticketId;
+    private CheckoutStatus status;
+    private Long orderId;
+    private String error;
+}
@@ -0,0 +1,13 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductConflictStatsDto {
+    private Long productId;
+    private long conflicts;
+}
@@ -0,0 +1,13 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportErrorDto {
+    private long row;
+    private String message;
+}
@@ -0,0 +1,17 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportResultDto {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<ProductImportErrorDto> errors = new ArrayList<>();
+    // Hata listesi product.import.max-reported-errors ile sınırlıdır
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductPageDto {
+    private List<ProductDto> items;
+    // Son sayfada null; bir sonraki istekte cursor parametresi olarak gönderilir
+    private String nextCursor;
+}
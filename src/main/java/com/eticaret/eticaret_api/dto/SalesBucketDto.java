@@ -0,0 +1,18 @@
+package com.eticaret.eticaret_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesBucketDto {
+    // Günün, haftanın (pazartesi) veya ayın ilk günü
+    private LocalDate bucketStart;
+    // Ürün bazlı sorgularda sipariş sayısı tutulmadığı için null
+    private Long orders;
+    private long units;
+    private double revenue;
+}
@@ -0,0 +1,7 @@
+package com.eticaret.eticaret_api.dto;
+
+public enum SalesGranularity {
+    DAY,
+    WEEK,
+    MONTH
+}
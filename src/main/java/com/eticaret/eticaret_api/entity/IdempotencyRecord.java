@@ -0,0 +1,48 @@
+package com.eticaret.eticaret_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "idempotency_key")
+public class IdempotencyRecord implements Persistable<String> {
+
+    // "<userId>:<Idempotency-Key>" şeklinde; anahtarlar kullanıcıya özeldir
+    @Id
+    @Column(length = 150)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private Long orderId;
+
+    // İlk isteğe dönülen OrderDto'nun JSON hali; tekrar isteklerinde aynen döner
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Id elle atandığı için save() merge yerine persist yapsın; aynı anahtar ikinci kez yazılırsa unique hatası alınır
+    @Transient
+    private boolean persisted;
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,52 @@
+package com.eticaret.eticaret_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import java.time.LocalDateTime;
+
+/**
+ * Sipariş olayları için outbox satırı. Siparişle aynı transaction'da yazılır;
+ * dağıtıcı commit edilmiş satırları toplu okuyup sink'e iletir ve dispatchedAt'i işaretler.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "order_event")
+public class OrderEvent {
+
+    public static final String ORDER_CREATED = "ORDER_CREATED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false, length = 50)
+    private String eventType;
+
+    // Olay anındaki OrderDto'nun JSON hali
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime dispatchedAt;
+
+    // Başarısız teslim denemeleri; outbox.dispatch.max-attempts'e ulaşınca olay park edilir
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private Integer attempts = 0;
+
+    private LocalDateTime nextAttemptAt;
+
+    // Doluysa olay otomatik olarak tekrar gönderilmez; last_error'a bakılıp elle ele alınır
+    private LocalDateTime parkedAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -6,16 +6,22 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+// Stok JDBC ile güncellendiği için bu bölge ProductEntityCacheEvictor tarafından commit sonrası temizlenir
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "product")
 public class Product {
 
+    // Havuzlu sequence: id'ler 50'lik bloklar halinde alınır, böylece insert'ler JDBC batch'lenebilir
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
@@ -31,4 +37,8 @@ public class Product {
 
     @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
     private Integer stock = 0; //
+
+    // JDBC stok güncellemeleri de artırır; bayat entity ile yapılan düzenleme stoğu ezemez
+    @Version
+    private Long version;
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.eticaret.eticaret_api.entity;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
@@ -28,5 +29,11 @@ public class ShoppingCart {
     @OneToMany(mappedBy = "shoppingCart", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private Set<CartItem> cartItems = new HashSet<>();
 
+    // Sepeti değiştiren her transaction versiyonu artırır (findWithItemsByUserIdForUpdate);
+    // böylece satır ekleme, silme ve miktar değişiklikleri de eşzamanlı isteklerle çakışır
+    @JsonIgnore
+    @Version
+    private Long version;
+
 
 }
\ No newline at end of file
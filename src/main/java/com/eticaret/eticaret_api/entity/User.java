@@ -1,5 +1,6 @@
 package com.eticaret.eticaret_api.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
@@ -9,6 +10,10 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 @Getter
 @Setter
@@ -16,6 +21,8 @@ import lombok.Setter;
 @AllArgsConstructor
 @Entity
 @Table(name = "users")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
 
     @Id
@@ -24,6 +31,7 @@ public class User {
 
     @NotBlank(message = "Username cannot be blank")
     @Size(min = 3, max = 50, message = "Username must be between 3 and 50 characters")
+    @NaturalId
     @Column(unique = true, nullable = false)
     private String username;
 
@@ -38,6 +46,17 @@ public class User {
     @Column(unique = true, nullable = false)
     private String email;
 
+    // Şifre değiştiğinde artar; eski versiyonla imzalanmış token'lar geçersiz sayılır
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "INTEGER DEFAULT 0")
+    private Integer tokenVersion = 0;
+
+    // Token'a claim olarak yazılır; rol değişikliği yeni girişte geçerli olur
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private UserRole role = UserRole.CUSTOMER;
+
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private ShoppingCart shoppingCart;
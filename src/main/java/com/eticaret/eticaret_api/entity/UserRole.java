@@ -0,0 +1,6 @@
+package com.eticaret.eticaret_api.entity;
+
+public enum UserRole {
+    CUSTOMER,
+    ADMIN
+}
@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.Set;
+
+/**
+ * product.stock kolonu değiştiğinde yayınlanır. Dinleyiciler güncel stoğu
+ * gerekiyorsa veritabanından okur.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductStockChangedEvent {
+    private final Set<Long> productIds;
+}
@@ -0,0 +1,15 @@
+package com.eticaret.eticaret_api.event;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import java.util.List;
+
+/**
+ * Yeni ürünler kaydedildiğinde yayınlanır (tekil oluşturma veya toplu import).
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsCreatedEvent {
+    private final List<ProductDto> products;
+}
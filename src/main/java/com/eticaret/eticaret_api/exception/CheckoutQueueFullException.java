@@ -0,0 +1,9 @@
+package com.eticaret.eticaret_api.exception;
+
+// Asenkron checkout kuyruğu dolu; istemci kısa süre sonra tekrar denemeli (429)
+public class CheckoutQueueFullException extends RuntimeException {
+
+    public CheckoutQueueFullException() {
+        super("Checkout queue is full, please retry shortly.");
+    }
+}
@@ -1,7 +1,10 @@
 package com.eticaret.eticaret_api.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -22,4 +25,20 @@ public class GlobalExceptionHandler {
         });
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
-}
\ No newline at end of file
+
+    // Bağlantı kabul kapısı veya havuz zaman aşımı: istemci kısa süre sonra tekrar denemeli
+    @ExceptionHandler({CannotCreateTransactionException.class, CannotGetJdbcConnectionException.class})
+    public ResponseEntity<Object> handleConnectionUnavailable(Exception ex) {
+        Map<String, String> errorResponse = Map.of("error", "Service is busy, please retry shortly.");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    // Sadece FAIL modunda; mesaj aşılan bütçeyi ve sorgunun çağrı yerini içerir
+    @ExceptionHandler(QueryBudgetExceededException.class)
+    public ResponseEntity<Object> handleQueryBudgetExceeded(QueryBudgetExceededException ex) {
+        Map<String, String> errorResponse = Map.of("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+    }
+}
@@ -0,0 +1,18 @@
+package com.eticaret.eticaret_api.exception;
+
+import lombok.Getter;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final Long productId;
+    private final int requested;
+    private final long available;
+
+    public InsufficientStockException(Long productId, int requested, long available) {
+        super("Insufficient stock for product id: " + productId + ". Requested: " + requested + ", Available: " + available);
+        this.productId = productId;
+        this.requested = requested;
+        this.available = available;
+    }
+}
@@ -0,0 +1,9 @@
+package com.eticaret.eticaret_api.exception;
+
+// Sadece diagnostics.query-budget.mode=FAIL iken fırlatılır (testler ve staging)
+public class QueryBudgetExceededException extends RuntimeException {
+
+    public QueryBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.eticaret.eticaret_api.exception;
+
+// Satış özetleri zaten yeniden hesaplanıyor; ikinci bir iş checkout'ları daha uzun bekletir (409)
+public class SalesRebuildInProgressException extends RuntimeException {
+
+    public SalesRebuildInProgressException() {
+        super("A sales rollup rebuild is already running.");
+    }
+}
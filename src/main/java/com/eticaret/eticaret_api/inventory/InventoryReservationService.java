@@ -0,0 +1,162 @@
+package com.eticaret.eticaret_api.inventory;
+
+import com.eticaret.eticaret_api.event.ProductStockChangedEvent;
+import com.eticaret.eticaret_api.exception.InsufficientStockException;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flash satışlar için stok rezervasyon katmanı. Etkinleştirildiğinde (inventory.reservation.enabled)
+ * checkout stoğu veritabanı satırını kilitlemeden bellekteki şeritli sayaçlardan ayırır;
+ * commit edilen düşümler biriktirilip arka planda toplu olarak product tablosuna yazılır.
+ * Bellekteki sayaçlar tek yetkili kaynak olduğu için uygulama tek instance çalışmalıdır.
+ */
+@Service
+public class InventoryReservationService {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryReservationService.class);
+
+    private static final String APPLY_DELTA_SQL = "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ?";
+
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int stripes;
+
+    private final Map<Long, StripedStockCounter> counters = new ConcurrentHashMap<>();
+    // Commit edilmiş ama henüz veritabanına yazılmamış düşümler
+    private final Map<Long, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public InventoryReservationService(ProductRepository productRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       ApplicationEventPublisher eventPublisher,
+                                       @Value("${inventory.reservation.enabled:false}") boolean enabled,
+                                       @Value("${inventory.reservation.stripes:8}") int stripes) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.stripes = stripes;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileFromDatabase() {
+        if (!enabled) {
+            return;
+        }
+        flush();
+        counters.clear();
+        // Yazma transaction'ı içinde okunur; replika yönlendirmesi açıksa bile primary'deki güncel stok alınır
+        List<Object[]> stockLevels = transactionTemplate.execute(status -> productRepository.findAllStockLevels());
+        for (Object[] row : stockLevels) {
+            counters.put((Long) row[0], new StripedStockCounter(stripes, (Integer) row[1]));
+        }
+        log.info("Inventory reservation counters reconciled for {} products", counters.size());
+    }
+
+    /**
+     * Tüm satırları ayırır ya da hiçbirini ayırmaz. Aktif bir transaction içinde
+     * çağrılmalıdır: commit olursa düşümler yazma kuyruğuna eklenir, rollback
+     * olursa ayrılan stok sayaçlara geri verilir.
+     */
+    public void reserve(Map<Long, Integer> quantities) {
+        Map<Long, Integer> reserved = new LinkedHashMap<>();
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            StripedStockCounter counter = counterFor(entry.getKey());
+            if (!counter.tryReserve(entry.getValue())) {
+                reserved.forEach((productId, quantity) -> counters.get(productId).release(quantity));
+                throw new InsufficientStockException(entry.getKey(), entry.getValue(), counter.available());
+            }
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    reserved.forEach((productId, quantity) ->
+                            pendingDeltas.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(quantity));
+                } else {
+                    reserved.forEach((productId, quantity) -> counters.get(productId).release(quantity));
+                }
+            }
+        });
+    }
+
+    public long available(Long productId) {
+        return counterFor(productId).available();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+        Map<Long, Integer> batch = new LinkedHashMap<>();
+        pendingDeltas.forEach((productId, delta) -> {
+            int value = delta.getAndSet(0);
+            if (value != 0) {
+                batch.put(productId, value);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new ArrayList<>(batch.size());
+        batch.forEach((productId, delta) -> batchArgs.add(new Object[]{delta, productId}));
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(APPLY_DELTA_SQL, batchArgs));
+        } catch (RuntimeException e) {
+            // Yazılamayan düşümler kaybolmasın diye bir sonraki turda tekrar denenir
+            batch.forEach((productId, delta) ->
+                    pendingDeltas.computeIfAbsent(productId, id -> new AtomicInteger()).addAndGet(delta));
+            log.warn("Inventory flush failed for {} products, will retry", batch.size(), e);
+            return;
+        }
+        eventPublisher.publishEvent(new ProductStockChangedEvent(new HashSet<>(batch.keySet())));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Başlangıçtan sonra eklenen ürünler ilk kullanımda veritabanından yüklenir
+    private StripedStockCounter counterFor(Long productId) {
+        return counters.computeIfAbsent(productId, id -> {
+            Integer stock = productRepository.findStockById(id)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + id));
+            return new StripedStockCounter(stripes, stock);
+        });
+    }
+}
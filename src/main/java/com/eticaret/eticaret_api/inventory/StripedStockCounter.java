@@ -0,0 +1,104 @@
+package com.eticaret.eticaret_api.inventory;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bir ürünün stoğunu birden fazla şeride bölerek tutar. Her checkout rastgele bir
+ * şeritten CAS ile düşer; böylece aynı ürüne gelen eşzamanlı istekler tek bir
+ * sayaç üzerinde yarışmaz. Şeritler ayrı cache line'larda durur.
+ */
+class StripedStockCounter {
+
+    // 16 * 8 byte = 128 byte: komşu şeritler aynı cache line'ı paylaşmaz
+    private static final int PADDING = 16;
+
+    private final int stripes;
+    private final AtomicLongArray cells;
+
+    StripedStockCounter(int stripes, long initialStock) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+        long share = initialStock / stripes;
+        long remainder = initialStock % stripes;
+        for (int i = 0; i < stripes; i++) {
+            cells.set(i * PADDING, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Stok gerçekten yetmediğinde false döner. Önce tek bir şeritten kilitsiz denenir;
+     * hiçbir şerit tek başına yetmiyorsa parçalar kilit altında toplanır.
+     */
+    boolean tryReserve(int quantity) {
+        if (reserveFromSingleStripe(ThreadLocalRandom.current().nextInt(stripes), quantity)) {
+            return true;
+        }
+        return reserveCollecting(quantity);
+    }
+
+    void release(int quantity) {
+        cells.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+    }
+
+    long available() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    // Toplayıcılar tek tek çalışır; aynı anda parça alıp geri veren iki toplayıcı birbirini
+    // "stok yok" sanmaz. Her tekrar başka bir isteğin stok aldığını veya bıraktığını gösterir,
+    // yani döngü gerçek ilerlemeyle sınırlıdır
+    private synchronized boolean reserveCollecting(int quantity) {
+        while (true) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            if (reserveFromSingleStripe(start, quantity) || reserveAcrossStripes(start, quantity)) {
+                return true;
+            }
+            if (available() < quantity) {
+                return false;
+            }
+        }
+    }
+
+    private boolean reserveFromSingleStripe(int start, int quantity) {
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            long current = cells.get(index);
+            while (current >= quantity) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    return true;
+                }
+                current = cells.get(index);
+            }
+        }
+        return false;
+    }
+
+    // Tek bir şerit yetmiyorsa parça parça toplanır; toplam yetmezse alınanlar geri verilir
+    private boolean reserveAcrossStripes(int start, int quantity) {
+        long taken = 0;
+        for (int i = 0; i < stripes && taken < quantity; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+            long current = cells.get(index);
+            while (current > 0 && taken < quantity) {
+                long part = Math.min(current, quantity - taken);
+                if (cells.compareAndSet(index, current, current - part)) {
+                    taken += part;
+                    break;
+                }
+                current = cells.get(index);
+            }
+        }
+        if (taken == quantity) {
+            return true;
+        }
+        if (taken > 0) {
+            cells.addAndGet(start * PADDING, taken);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,17 @@
+package com.eticaret.eticaret_api.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+/**
+ * Yüklenen (hydrate edilen) her entity'yi o anki isteğin sayacına ekler.
+ * DTO/projection sorgularının satırları entity olmadığı için sayılmaz.
+ */
+public class EntityLoadCountingInterceptor implements Interceptor {
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        QueryCounters.entityLoaded();
+        return false;
+    }
+}
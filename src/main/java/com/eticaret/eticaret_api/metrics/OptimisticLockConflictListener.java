@@ -0,0 +1,65 @@
+package com.eticaret.eticaret_api.metrics;
+
+import com.eticaret.eticaret_api.dto.ProductConflictStatsDto;
+import com.eticaret.eticaret_api.entity.Product;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @Retryable metotlarında yakalanan iyimser kilit çakışmalarını sayar.
+ * optimistic.lock.conflicts sayacı entity türüne göre etiketlenir; ürün başına
+ * sayılar ise etiket kardinalitesi büyümesin diye sınırlı bir tabloda tutulur
+ * ve en çok çakışan ürünler yönetim uç noktasından okunur. Denemeleri tükenen
+ * çağrılar optimistic.lock.retries.exhausted ile sayılır.
+ */
+public class OptimisticLockConflictListener implements RetryListener {
+
+    private static final int MAX_TRACKED_PRODUCTS = 10_000;
+
+    private final MeterRegistry meterRegistry;
+    private final Cache<Long, LongAdder> conflictsByProduct = Caffeine.newBuilder()
+            .maximumSize(MAX_TRACKED_PRODUCTS)
+            .build();
+
+    public OptimisticLockConflictListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (!(throwable instanceof OptimisticLockingFailureException)) {
+            return;
+        }
+        String className = throwable instanceof ObjectOptimisticLockingFailureException conflict ? conflict.getPersistentClassName() : null;
+        String entity = className != null ? className.substring(className.lastIndexOf('.') + 1) : "unknown";
+        meterRegistry.counter("optimistic.lock.conflicts", "entity", entity).increment();
+        if (Product.class.getName().equals(className)
+                && ((ObjectOptimisticLockingFailureException) throwable).getIdentifier() instanceof Long productId) {
+            conflictsByProduct.get(productId, id -> new LongAdder()).increment();
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            meterRegistry.counter("optimistic.lock.retries.exhausted").increment();
+        }
+    }
+
+    public List<ProductConflictStatsDto> getMostContendedProducts(int limit) {
+        return conflictsByProduct.asMap().entrySet().stream()
+                .map(entry -> new ProductConflictStatsDto(entry.getKey(), entry.getValue().sum()))
+                .sorted(Comparator.comparingLong(ProductConflictStatsDto::getConflicts).reversed())
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,18 @@
+package com.eticaret.eticaret_api.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Bir uç noktanın istek başına hazırlayabileceği en fazla Hibernate SQL ifadesi.
+ * Sınır diagnostics.query-budget.mode LOG veya FAIL iken denetlenir; sayıma
+ * güvenlik filtresindeki sorgular da dahildir, JdbcTemplate ifadeleri dahil değildir.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface QueryBudget {
+
+    int maxStatements();
+}
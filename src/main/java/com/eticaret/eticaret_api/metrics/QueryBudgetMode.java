@@ -0,0 +1,7 @@
+package com.eticaret.eticaret_api.metrics;
+
+public enum QueryBudgetMode {
+    OFF,
+    LOG,
+    FAIL
+}
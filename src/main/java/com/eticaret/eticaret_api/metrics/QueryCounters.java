@@ -0,0 +1,78 @@
+package com.eticaret.eticaret_api.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * İsteği işleyen thread'e bağlı sorgu sayaçları. Sayaç sadece
+ * {@link RequestQueryMetricsFilter} içinde açıktır; istek dışındaki işler
+ * (zamanlanmış görevler, @Async) sayılmaz. SELECT biçimleri yalnızca sorgu
+ * bütçesi denetimi açıkken tutulur.
+ */
+final class QueryCounters {
+
+    private static final ThreadLocal<QueryCounters> CURRENT = new ThreadLocal<>();
+
+    private long statements;
+    private long entitiesLoaded;
+    private QueryBudget budget;
+    private String handler;
+    private Map<String, Integer> selectCounts;
+
+    private QueryCounters() {
+    }
+
+    static QueryCounters start() {
+        QueryCounters counters = new QueryCounters();
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    static QueryCounters current() {
+        return CURRENT.get();
+    }
+
+    static void entityLoaded() {
+        QueryCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.entitiesLoaded++;
+        }
+    }
+
+    long statementPrepared() {
+        return ++statements;
+    }
+
+    // Hibernate aynı biçimdeki sorgu için aynı SQL metnini üretir; parametreler '?' olarak kalır
+    int selectPrepared(String sql) {
+        if (selectCounts == null) {
+            selectCounts = new HashMap<>();
+        }
+        return selectCounts.merge(sql, 1, Integer::sum);
+    }
+
+    void setBudget(QueryBudget budget, String handler) {
+        this.budget = budget;
+        this.handler = handler;
+    }
+
+    QueryBudget getBudget() {
+        return budget;
+    }
+
+    String getHandler() {
+        return handler;
+    }
+
+    long getStatements() {
+        return statements;
+    }
+
+    long getEntitiesLoaded() {
+        return entitiesLoaded;
+    }
+}
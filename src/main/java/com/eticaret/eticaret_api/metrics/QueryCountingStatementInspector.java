@@ -0,0 +1,78 @@
+package com.eticaret.eticaret_api.metrics;
+
+import com.eticaret.eticaret_api.exception.QueryBudgetExceededException;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Hibernate'in hazırladığı her SQL ifadesini o anki isteğin sayacına ekler,
+ * SQL'i değiştirmez. JdbcTemplate ile doğrudan çalışan ifadeler (stok düşümü
+ * gibi) Hibernate'ten geçmediği için sayılmaz.
+ *
+ * Sorgu bütçesi modu LOG veya FAIL iken iki ihlal aranır: uç noktanın
+ * {@link QueryBudget} sınırının aşılması ve aynı biçimdeki SELECT'in bir istekte
+ * eşik kadar tekrarlanması (N+1). Her ihlal istek başına bir kez, çağrı yeriyle
+ * birlikte loglanır ya da {@link QueryBudgetExceededException} olarak fırlatılır.
+ */
+public class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountingStatementInspector.class);
+
+    private static final String APPLICATION_PACKAGE = "com.eticaret.eticaret_api.";
+    private static final String METRICS_PACKAGE = APPLICATION_PACKAGE + "metrics.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final QueryBudgetMode mode;
+    private final int repeatedSelectThreshold;
+
+    public QueryCountingStatementInspector(QueryBudgetMode mode, int repeatedSelectThreshold) {
+        this.mode = mode;
+        this.repeatedSelectThreshold = repeatedSelectThreshold;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        QueryCounters counters = QueryCounters.current();
+        if (counters == null) {
+            return sql;
+        }
+        long statements = counters.statementPrepared();
+        if (mode == QueryBudgetMode.OFF) {
+            return sql;
+        }
+        QueryBudget budget = counters.getBudget();
+        if (budget != null && statements == budget.maxStatements() + 1L) {
+            violation("Query budget of " + budget.maxStatements() + " statements exceeded in " + counters.getHandler(), sql);
+        }
+        if (isSelect(sql) && counters.selectPrepared(sql) == repeatedSelectThreshold) {
+            violation("Same select issued " + repeatedSelectThreshold + " times in one request (possible N+1) in "
+                    + (counters.getHandler() != null ? counters.getHandler() : "unmapped request"), sql);
+        }
+        return sql;
+    }
+
+    private void violation(String problem, String sql) {
+        String message = problem + " at " + callSite() + ": " + sql;
+        if (mode == QueryBudgetMode.FAIL) {
+            throw new QueryBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+
+    private static boolean isSelect(String sql) {
+        return sql.regionMatches(true, 0, "select", 0, 6) || sql.regionMatches(true, 0, "with", 0, 4);
+    }
+
+    // Uygulamanın kendi paketindeki ilk çerçeve; proxy ve Spring Data çerçeveleri atlanır
+    private static String callSite() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(METRICS_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .findFirst()
+                .map(StackWalker.StackFrame::toStackTraceElement)
+                .map(StackTraceElement::toString)
+                .orElse("unknown call site"));
+    }
+}
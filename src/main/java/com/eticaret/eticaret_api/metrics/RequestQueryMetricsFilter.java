@@ -0,0 +1,56 @@
+package com.eticaret.eticaret_api.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import java.io.IOException;
+
+/**
+ * İstek boyunca Hibernate'in hazırladığı SQL ifadelerini ve yüklediği entity'leri
+ * sayar; sonuçları http.server.requests ile aynı method/uri etiketleriyle
+ * histogram olarak yayınlar. Güvenlik filtresinden önce çalışır, böylece
+ * kimlik doğrulama sırasındaki sorgular da isteğe yazılır.
+ */
+public class RequestQueryMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestQueryMetricsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        QueryCounters counters = QueryCounters.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            QueryCounters.stop();
+            // Eşleşen kalıp dispatch sırasında yazılır; 404 gibi durumlarda yoktur
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : UNKNOWN_URI;
+            summary("db.statements.per.request", request.getMethod(), uri).record(counters.getStatements());
+            summary("db.entities.loaded.per.request", request.getMethod(), uri).record(counters.getEntitiesLoaded());
+        }
+    }
+
+    private DistributionSummary summary(String name, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .tag("method", method)
+                .tag("uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
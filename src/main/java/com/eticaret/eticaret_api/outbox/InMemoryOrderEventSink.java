@@ -0,0 +1,27 @@
+package com.eticaret.eticaret_api.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+
+// Testler ve yük testi için: teslim edilen olayları bellekte biriktirir (outbox.sink=memory)
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory")
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final List<OrderEventMessage> delivered = new ArrayList<>();
+
+    @Override
+    public synchronized void deliver(List<OrderEventMessage> events) {
+        delivered.addAll(events);
+    }
+
+    public synchronized List<OrderEventMessage> getDelivered() {
+        return List.copyOf(delivered);
+    }
+
+    public synchronized void clear() {
+        delivered.clear();
+    }
+}
@@ -0,0 +1,22 @@
+package com.eticaret.eticaret_api.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.List;
+
+// Varsayılan sink: gerçek bir entegrasyon bağlanana kadar olayları sadece loglar
+@Component
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOrderEventSink implements OrderEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingOrderEventSink.class);
+
+    @Override
+    public void deliver(List<OrderEventMessage> events) {
+        for (OrderEventMessage event : events) {
+            log.debug("Order event {} {} for order {}: {}", event.id(), event.eventType(), event.orderId(), event.payload());
+        }
+    }
+}
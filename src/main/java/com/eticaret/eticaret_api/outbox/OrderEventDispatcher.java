@@ -0,0 +1,212 @@
+package com.eticaret.eticaret_api.outbox;
+
+import com.eticaret.eticaret_api.repository.OrderEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Outbox'taki bekleyen sipariş olaylarını periyodik olarak toplu okuyup sink'e iletir.
+ * Satırlar FOR UPDATE SKIP LOCKED ile alınır: birden fazla instance aynı anda çalışsa da
+ * her satırı tek bir dağıtıcı görür. Teslim ve işaretleme aynı transaction'dadır.
+ *
+ * Grup teslimi hata verirse grup geri alınır ve olaylar tek tek, her biri kendi
+ * transaction'ında gönderilir; böylece tek bir bozuk olay diğerlerini bekletmez.
+ * Hata veren olayın deneme sayısı artar ve sonraki denemesi üstel olarak ertelenir;
+ * outbox.dispatch.max-attempts denemeden sonra parked_at ile kenara alınır.
+ */
+@Service
+public class OrderEventDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderEventDispatcher.class);
+
+    // Bekleme süresi en fazla 2^10 katına çıkar
+    private static final int MAX_BACKOFF_DOUBLINGS = 10;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final String PENDING_CONDITION =
+            "dispatched_at IS NULL AND parked_at IS NULL AND (next_attempt_at IS NULL OR next_attempt_at <= ?)";
+    private static final String SELECT_PENDING_SQL =
+            "SELECT id, order_id, event_type, payload, created_at FROM order_event " +
+            "WHERE " + PENDING_CONDITION + " ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED";
+    private static final String SELECT_PENDING_IDS_SQL =
+            "SELECT id FROM order_event WHERE " + PENDING_CONDITION + " ORDER BY id LIMIT ?";
+    private static final String SELECT_PENDING_BY_ID_SQL =
+            "SELECT id, order_id, event_type, payload, created_at FROM order_event " +
+            "WHERE id = ? AND dispatched_at IS NULL AND parked_at IS NULL FOR UPDATE SKIP LOCKED";
+    private static final String MARK_DISPATCHED_SQL =
+            "UPDATE order_event SET dispatched_at = ? WHERE id = ANY (?)";
+    private static final String LOCK_ATTEMPTS_SQL =
+            "SELECT attempts FROM order_event WHERE id = ? AND dispatched_at IS NULL FOR UPDATE";
+    private static final String RECORD_FAILURE_SQL =
+            "UPDATE order_event SET attempts = ?, next_attempt_at = ?, parked_at = ?, last_error = ? WHERE id = ?";
+
+    private static final RowMapper<OrderEventMessage> EVENT_ROW_MAPPER = (rs, rowNum) -> new OrderEventMessage(
+            rs.getLong("id"),
+            rs.getLong("order_id"),
+            rs.getString("event_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventSink sink;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int maxAttempts;
+    private final Duration retryBackoff;
+    private final Duration retention;
+
+    private final Timer deliveryLag;
+    private final Counter dispatched;
+    private final Counter failures;
+    private final Counter parked;
+    private final DistributionSummary batchSizes;
+
+    @Autowired
+    public OrderEventDispatcher(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                OrderEventRepository orderEventRepository,
+                                OrderEventSink sink,
+                                MeterRegistry meterRegistry,
+                                @Value("${outbox.dispatch.enabled:true}") boolean enabled,
+                                @Value("${outbox.dispatch.batch-size:200}") int batchSize,
+                                @Value("${outbox.dispatch.max-batches-per-run:10}") int maxBatchesPerRun,
+                                @Value("${outbox.dispatch.max-attempts:10}") int maxAttempts,
+                                @Value("${outbox.dispatch.retry-backoff-ms:1000}") long retryBackoffMs,
+                                @Value("${outbox.retention-hours:72}") long retentionHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.orderEventRepository = orderEventRepository;
+        this.sink = sink;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.maxAttempts = maxAttempts;
+        this.retryBackoff = Duration.ofMillis(retryBackoffMs);
+        this.retention = Duration.ofHours(retentionHours);
+        this.deliveryLag = Timer.builder("outbox.delivery.lag").register(meterRegistry);
+        this.dispatched = meterRegistry.counter("outbox.events.dispatched");
+        this.failures = meterRegistry.counter("outbox.dispatch.failures");
+        this.parked = meterRegistry.counter("outbox.events.parked");
+        this.batchSizes = DistributionSummary.builder("outbox.dispatch.batch.size").register(meterRegistry);
+    }
+
+    // Grup dolu geldiyse birikme var demektir; bir sonraki turu beklemeden devam edilir
+    @Scheduled(fixedDelayString = "${outbox.dispatch.interval-ms:500}")
+    public void dispatchPending() {
+        if (!enabled) {
+            return;
+        }
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            int count;
+            try {
+                count = transactionTemplate.execute(status -> dispatchBatch());
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("Order event batch delivery failed, retrying its events one by one", e);
+                dispatchIndividually();
+                return;
+            }
+            if (count < batchSize) {
+                return;
+            }
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup-cron:0 30 * * * *}")
+    public void purgeDispatchedEvents() {
+        orderEventRepository.deleteDispatchedBefore(LocalDateTime.now().minus(retention));
+    }
+
+    private int dispatchBatch() {
+        List<OrderEventMessage> events = jdbcTemplate.query(SELECT_PENDING_SQL, EVENT_ROW_MAPPER,
+                Timestamp.valueOf(LocalDateTime.now()), batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        sink.deliver(events);
+        markDispatched(events);
+        return events.size();
+    }
+
+    private void dispatchIndividually() {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_PENDING_IDS_SQL, Long.class,
+                Timestamp.valueOf(LocalDateTime.now()), batchSize);
+        for (Long id : ids) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> dispatchSingle(id));
+            } catch (RuntimeException e) {
+                failures.increment();
+                transactionTemplate.executeWithoutResult(status -> recordFailure(id, e));
+            }
+        }
+    }
+
+    private void dispatchSingle(Long id) {
+        // Boşsa olayı bu arada başka bir dağıtıcı almış veya göndermiştir
+        List<OrderEventMessage> events = jdbcTemplate.query(SELECT_PENDING_BY_ID_SQL, EVENT_ROW_MAPPER, id);
+        if (events.isEmpty()) {
+            return;
+        }
+        sink.deliver(events);
+        markDispatched(events);
+    }
+
+    private void recordFailure(Long id, RuntimeException error) {
+        List<Integer> previousAttempts = jdbcTemplate.queryForList(LOCK_ATTEMPTS_SQL, Integer.class, id);
+        if (previousAttempts.isEmpty()) {
+            return;
+        }
+        int attempt = previousAttempts.get(0) + 1;
+        LocalDateTime now = LocalDateTime.now();
+        boolean park = attempt >= maxAttempts;
+        Duration backoff = retryBackoff.multipliedBy(1L << Math.min(attempt - 1, MAX_BACKOFF_DOUBLINGS));
+        String message = String.valueOf(error);
+        String lastError = message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+        jdbcTemplate.update(RECORD_FAILURE_SQL, ps -> {
+            ps.setInt(1, attempt);
+            ps.setTimestamp(2, park ? null : Timestamp.valueOf(now.plus(backoff)));
+            ps.setTimestamp(3, park ? Timestamp.valueOf(now) : null);
+            ps.setString(4, lastError);
+            ps.setLong(5, id);
+        });
+        if (park) {
+            parked.increment();
+            log.error("Order event {} parked after {} failed deliveries", id, attempt, error);
+        } else {
+            log.warn("Order event {} delivery failed (attempt {} of {}), retrying in {}", id, attempt, maxAttempts, backoff, error);
+        }
+    }
+
+    private void markDispatched(List<OrderEventMessage> events) {
+        LocalDateTime now = LocalDateTime.now();
+        Long[] ids = events.stream().map(OrderEventMessage::id).toArray(Long[]::new);
+        jdbcTemplate.update(MARK_DISPATCHED_SQL, ps -> {
+            ps.setTimestamp(1, Timestamp.valueOf(now));
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", ids));
+        });
+
+        for (OrderEventMessage event : events) {
+            deliveryLag.record(Duration.between(event.createdAt(), now));
+        }
+        dispatched.increment(events.size());
+        batchSizes.record(events.size());
+    }
+}
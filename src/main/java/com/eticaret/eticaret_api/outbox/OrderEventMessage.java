@@ -0,0 +1,7 @@
+package com.eticaret.eticaret_api.outbox;
+
+import java.time.LocalDateTime;
+
+// Sink'e iletilen outbox satırı; id tekrar teslimlerde aynı kalır, alıcılar buna göre tekilleştirebilir
+public record OrderEventMessage(Long id, Long orderId, String eventType, String payload, LocalDateTime createdAt) {
+}
@@ -0,0 +1,14 @@
+package com.eticaret.eticaret_api.outbox;
+
+import java.util.List;
+
+/**
+ * Outbox olaylarının teslim edildiği hedef (depo, fatura, e-posta entegrasyonları).
+ * Teslim en az bir kez garantilidir: deliver hata fırlatırsa grubun olayları tek tek
+ * tekrar gönderilir. Dönen her olay teslim edilmiş sayılır; sürekli hata veren olay
+ * park edilir ve otomatik olarak tekrar gönderilmez.
+ */
+public interface OrderEventSink {
+
+    void deliver(List<OrderEventMessage> events);
+}
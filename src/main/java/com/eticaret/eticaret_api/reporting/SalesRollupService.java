@@ -0,0 +1,211 @@
+package com.eticaret.eticaret_api.reporting;
+
+import com.eticaret.eticaret_api.dto.ProductSalesDto;
+import com.eticaret.eticaret_api.dto.SalesBucketDto;
+import com.eticaret.eticaret_api.dto.SalesGranularity;
+import com.eticaret.eticaret_api.entity.Order;
+import com.eticaret.eticaret_api.entity.OrderItem;
+import com.eticaret.eticaret_api.exception.SalesRebuildInProgressException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Gün ve ürün bazında satış özetleri (sales_daily, sales_daily_product). Özetler her
+ * siparişte, siparişle aynı transaction'da UPSERT ile artırılır; raporlar sadece bu
+ * tablolardan okunur ve ham siparişleri taramaz. Geçmiş düzeltmeleri için özetler
+ * verilen gün aralığında siparişlerden yeniden hesaplanabilir.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(SalesRollupService.class);
+
+    // V5 ve V9 migration'larındaki şerit sayısıyla aynı olmalı
+    static final int DAILY_SHARDS = 16;
+
+    private static final String UPSERT_DAILY_SQL =
+            "INSERT INTO sales_daily (sale_date, shard, order_count, units, revenue) VALUES (?, ?, 1, ?, ?) " +
+            "ON CONFLICT (sale_date, shard) DO UPDATE SET order_count = sales_daily.order_count + 1, " +
+            "units = sales_daily.units + EXCLUDED.units, revenue = sales_daily.revenue + EXCLUDED.revenue";
+    private static final String UPSERT_PRODUCT_SQL =
+            "INSERT INTO sales_daily_product (product_id, sale_date, shard, units, revenue) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (product_id, sale_date, shard) DO UPDATE SET " +
+            "units = sales_daily_product.units + EXCLUDED.units, revenue = sales_daily_product.revenue + EXCLUDED.revenue";
+
+    private static final String TOTALS_SQL =
+            "SELECT CAST(date_trunc(?, sale_date) AS DATE) AS bucket, SUM(order_count) AS orders, " +
+            "SUM(units) AS units, SUM(revenue) AS revenue FROM sales_daily " +
+            "WHERE sale_date >= ? AND sale_date <= ? GROUP BY bucket ORDER BY bucket";
+    private static final String PRODUCT_BUCKETS_SQL =
+            "SELECT CAST(date_trunc(?, sale_date) AS DATE) AS bucket, SUM(units) AS units, SUM(revenue) AS revenue " +
+            "FROM sales_daily_product WHERE product_id = ? AND sale_date >= ? AND sale_date <= ? " +
+            "GROUP BY bucket ORDER BY bucket";
+    private static final String TOP_PRODUCTS_SQL =
+            "SELECT product_id, SUM(units) AS units, SUM(revenue) AS revenue FROM sales_daily_product " +
+            "WHERE sale_date >= ? AND sale_date <= ? GROUP BY product_id ORDER BY revenue DESC, product_id LIMIT ?";
+
+    // Tüm instance'larda aynı anda tek yeniden hesaplama; kilit ayrı bir bağlantıda iş boyunca tutulur
+    private static final long REBUILD_ADVISORY_LOCK_KEY = 0x53414c4553L;
+    private static final String TRY_REBUILD_LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    private static final String RELEASE_REBUILD_LOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    // Yeniden hesaplama sırasında aralığa commit olan siparişler özet tablolarına yazamaz, kilidin bitmesini bekler
+    private static final String LOCK_ROLLUPS_SQL = "LOCK TABLE sales_daily, sales_daily_product IN SHARE ROW EXCLUSIVE MODE";
+    private static final String DELETE_DAILY_SQL = "DELETE FROM sales_daily WHERE sale_date >= ? AND sale_date < ?";
+    private static final String DELETE_PRODUCT_SQL = "DELETE FROM sales_daily_product WHERE sale_date >= ? AND sale_date < ?";
+    private static final String REBUILD_DAILY_SQL =
+            "INSERT INTO sales_daily (sale_date, shard, order_count, units, revenue) " +
+            "SELECT CAST(o.order_date AS DATE), CAST(o.id % " + DAILY_SHARDS + " AS SMALLINT), COUNT(*), SUM(l.units), SUM(o.total_amount) " +
+            "FROM orders o JOIN (SELECT order_id, SUM(quantity) AS units FROM order_item GROUP BY order_id) l ON l.order_id = o.id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? GROUP BY 1, 2";
+    private static final String REBUILD_PRODUCT_SQL =
+            "INSERT INTO sales_daily_product (product_id, sale_date, shard, units, revenue) " +
+            "SELECT i.product_id, CAST(o.order_date AS DATE), CAST(o.id % " + DAILY_SHARDS + " AS SMALLINT), " +
+            "SUM(i.quantity), SUM(i.quantity * i.price) " +
+            "FROM order_item i JOIN orders o ON o.id = i.order_id " +
+            "WHERE o.order_date >= ? AND o.order_date < ? AND i.product_id IS NOT NULL GROUP BY 1, 2, 3";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Autowired
+    public SalesRollupService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Siparişi günlük ve ürün özetlerine ekler. Siparişi yazan transaction içinde
+     * çağrılmalıdır; sipariş geri alınırsa özet artışları da geri alınır. Satır kilitleri
+     * commit'e kadar tutulur; aynı ürünü alan siparişler order id'sine göre farklı
+     * şeritlere yazar. Ürün satırları id sırasıyla güncellenir (deadlock olmaz).
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordOrder(Order order) {
+        Date saleDate = Date.valueOf(order.getOrderDate().toLocalDate());
+        short shard = (short) (order.getId() % DAILY_SHARDS);
+        Map<Long, long[]> unitsByProduct = new TreeMap<>();
+        Map<Long, Double> revenueByProduct = new TreeMap<>();
+        long totalUnits = 0;
+        for (OrderItem item : order.getOrderItems()) {
+            totalUnits += item.getQuantity();
+            if (item.getProduct() == null) {
+                continue;
+            }
+            Long productId = item.getProduct().getId();
+            unitsByProduct.computeIfAbsent(productId, id -> new long[1])[0] += item.getQuantity();
+            revenueByProduct.merge(productId, item.getPrice() * item.getQuantity(), Double::sum);
+        }
+
+        List<Object[]> productArgs = new ArrayList<>(unitsByProduct.size());
+        unitsByProduct.forEach((productId, units) ->
+                productArgs.add(new Object[]{productId, saleDate, shard, units[0], revenueByProduct.get(productId)}));
+        jdbcTemplate.batchUpdate(UPSERT_PRODUCT_SQL, productArgs);
+        jdbcTemplate.update(UPSERT_DAILY_SQL, saleDate, shard, totalUnits, order.getTotalAmount());
+    }
+
+    // Her kova en fazla DAILY_SHARDS x gün sayısı özet satırından hesaplanır
+    @Transactional(readOnly = true)
+    public List<SalesBucketDto> getSales(LocalDate from, LocalDate to, SalesGranularity granularity, Long productId) {
+        String field = granularity.name().toLowerCase();
+        if (productId != null) {
+            return jdbcTemplate.query(PRODUCT_BUCKETS_SQL, (rs, rowNum) -> new SalesBucketDto(
+                    rs.getDate("bucket").toLocalDate(), null, rs.getLong("units"), rs.getDouble("revenue")),
+                    field, productId, Date.valueOf(from), Date.valueOf(to));
+        }
+        return jdbcTemplate.query(TOTALS_SQL, (rs, rowNum) -> new SalesBucketDto(
+                rs.getDate("bucket").toLocalDate(), rs.getLong("orders"), rs.getLong("units"), rs.getDouble("revenue")),
+                field, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProductSalesDto> getTopProducts(LocalDate from, LocalDate to, int limit) {
+        return jdbcTemplate.query(TOP_PRODUCTS_SQL, (rs, rowNum) -> new ProductSalesDto(
+                rs.getLong("product_id"), rs.getLong("units"), rs.getDouble("revenue")),
+                Date.valueOf(from), Date.valueOf(to), limit);
+    }
+
+    /**
+     * [from, to] aralığındaki özetleri siparişlerden yeniden hesaplar (geri doldurma,
+     * düzeltme). Her gün kendi transaction'ında işlenir; bir gün hesaplanırken
+     * checkout'lar özet tablolarına yazmak için bekler, kilit günler arasında bırakılır.
+     * Aynı anda ikinci bir istek gelirse {@link SalesRebuildInProgressException} fırlatılır.
+     */
+    public Map<String, Object> rebuild(LocalDate from, LocalDate to) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, Object>>) connection -> {
+            if (!advisoryLock(connection, TRY_REBUILD_LOCK_SQL)) {
+                throw new SalesRebuildInProgressException();
+            }
+            try {
+                return rebuildDays(from, to);
+            } finally {
+                advisoryLock(connection, RELEASE_REBUILD_LOCK_SQL);
+            }
+        });
+    }
+
+    private Map<String, Object> rebuildDays(LocalDate from, LocalDate to) {
+        int dailyRows = 0;
+        int productRows = 0;
+        int chunks = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            int[] rows = rebuildChunk(day, day.plusDays(1));
+            dailyRows += rows[0];
+            productRows += rows[1];
+            chunks++;
+        }
+        log.info("Sales rollups rebuilt for {}..{} in {} chunks: {} daily rows, {} product rows",
+                from, to, chunks, dailyRows, productRows);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("chunks", chunks);
+        result.put("dailyRows", dailyRows);
+        result.put("productRows", productRows);
+        return result;
+    }
+
+    private static boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, REBUILD_ADVISORY_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private int[] rebuildChunk(LocalDate start, LocalDate end) {
+        Date startDate = Date.valueOf(start);
+        Date endDate = Date.valueOf(end);
+        Timestamp startTime = Timestamp.valueOf(start.atStartOfDay());
+        Timestamp endTime = Timestamp.valueOf(end.atStartOfDay());
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.execute(LOCK_ROLLUPS_SQL);
+            jdbcTemplate.update(DELETE_DAILY_SQL, startDate, endDate);
+            jdbcTemplate.update(DELETE_PRODUCT_SQL, startDate, endDate);
+            return new int[]{
+                    jdbcTemplate.update(REBUILD_DAILY_SQL, startTime, endTime),
+                    jdbcTemplate.update(REBUILD_PRODUCT_SQL, startTime, endTime)};
+        });
+    }
+}
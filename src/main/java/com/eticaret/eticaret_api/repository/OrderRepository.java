@@ -1,11 +1,36 @@
 package com.eticaret.eticaret_api.repository;
 
 import com.eticaret.eticaret_api.entity.Order;
+import com.eticaret.eticaret_api.repository.projection.OrderHeaderView;
+import com.eticaret.eticaret_api.repository.projection.OrderLineView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserIdOrderByOrderDateDesc(Long userId);
-}
\ No newline at end of file
+
+    @Query("SELECT o.id AS id, u.id AS userId, u.username AS username, o.orderDate AS orderDate, o.totalAmount AS totalAmount " +
+            "FROM Order o JOIN o.user u " +
+            "WHERE u.id = :userId AND o.orderDate >= :from AND o.orderDate < :to " +
+            "ORDER BY o.orderDate DESC, o.id DESC")
+    List<OrderHeaderView> findHeadersByUserId(@Param("userId") Long userId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Pageable pageable);
+
+    @Query("SELECT oi.order.id AS orderId, p.id AS productId, p.name AS productName, oi.price AS price, oi.quantity AS quantity " +
+            "FROM OrderItem oi LEFT JOIN oi.product p " +
+            "WHERE oi.order.id IN :orderIds " +
+            "ORDER BY oi.id ASC")
+    List<OrderLineView> findLinesByOrderIds(@Param("orderIds") Collection<Long> orderIds);
+
+    @Query("SELECT oi.product.id, COUNT(oi) FROM OrderItem oi WHERE oi.product IS NOT NULL GROUP BY oi.product.id")
+    List<Object[]> countOrderLinesByProduct();
+}
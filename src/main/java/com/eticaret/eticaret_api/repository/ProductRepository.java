@@ -1,9 +1,42 @@
 package com.eticaret.eticaret_api.repository;
 
 import com.eticaret.eticaret_api.entity.Product;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT p FROM Product p WHERE p.id > :afterId " +
+            "AND p.price >= :minPrice AND p.price <= :maxPrice AND p.stock >= :minStock " +
+            "ORDER BY p.id ASC")
+    List<Product> findPageOrderById(@Param("afterId") Long afterId,
+                                    @Param("minPrice") Double minPrice,
+                                    @Param("maxPrice") Double maxPrice,
+                                    @Param("minStock") Integer minStock,
+                                    Pageable pageable);
+
+    @Query("SELECT p FROM Product p WHERE (p.price > :afterPrice OR (p.price = :afterPrice AND p.id > :afterId)) " +
+            "AND p.price >= :minPrice AND p.price <= :maxPrice AND p.stock >= :minStock " +
+            "ORDER BY p.price ASC, p.id ASC")
+    List<Product> findPageOrderByPrice(@Param("afterPrice") Double afterPrice,
+                                       @Param("afterId") Long afterId,
+                                       @Param("minPrice") Double minPrice,
+                                       @Param("maxPrice") Double maxPrice,
+                                       @Param("minStock") Integer minStock,
+                                       Pageable pageable);
+
+    @Query("SELECT p.id, p.name FROM Product p WHERE p.id > :afterId ORDER BY p.id ASC")
+    List<Object[]> findNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT p.id, p.stock FROM Product p")
+    List<Object[]> findAllStockLevels();
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+}
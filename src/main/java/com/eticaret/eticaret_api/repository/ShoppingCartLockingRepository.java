@@ -0,0 +1,14 @@
+package com.eticaret.eticaret_api.repository;
+
+import com.eticaret.eticaret_api.entity.ShoppingCart;
+import java.util.Optional;
+
+public interface ShoppingCartLockingRepository {
+
+    /**
+     * Sepeti değiştirecek transaction'lar için: sepet satırları ve ürünleriyle yüklenir,
+     * ardından yalnızca sepet OPTIMISTIC_FORCE_INCREMENT ile kilitlenir. Satırlar ters
+     * (mappedBy) koleksiyonda olduğundan değişiklikleri versiyonu kendiliğinden artırmaz.
+     */
+    Optional<ShoppingCart> findWithItemsByUserIdForUpdate(Long userId);
+}
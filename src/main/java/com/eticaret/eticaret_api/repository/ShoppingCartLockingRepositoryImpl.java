@@ -0,0 +1,26 @@
+package com.eticaret.eticaret_api.repository;
+
+import com.eticaret.eticaret_api.entity.ShoppingCart;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import java.util.Optional;
+
+class ShoppingCartLockingRepositoryImpl implements ShoppingCartLockingRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Kilit sorguya verilmez: fetch join'deki CartItem'a da uygulanır ve versiyonsuz entity'de hata verir
+    @Override
+    public Optional<ShoppingCart> findWithItemsByUserIdForUpdate(Long userId) {
+        Optional<ShoppingCart> cart = entityManager.createQuery(
+                        "SELECT c FROM ShoppingCart c LEFT JOIN FETCH c.cartItems i LEFT JOIN FETCH i.product WHERE c.user.id = :userId",
+                        ShoppingCart.class)
+                .setParameter("userId", userId)
+                .getResultStream()
+                .findFirst();
+        cart.ifPresent(found -> entityManager.lock(found, LockModeType.OPTIMISTIC_FORCE_INCREMENT));
+        return cart;
+    }
+}
@@ -2,10 +2,16 @@ package com.eticaret.eticaret_api.repository;
 
 import com.eticaret.eticaret_api.entity.ShoppingCart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long> {
+public interface ShoppingCartRepository extends JpaRepository<ShoppingCart, Long>, ShoppingCartLockingRepository {
     Optional<ShoppingCart> findByUserId(Long userId);
-}
\ No newline at end of file
+
+    // Sepet, satırları ve ürünleri tek join sorgusuyla yüklenir
+    @Query("SELECT c FROM ShoppingCart c LEFT JOIN FETCH c.cartItems i LEFT JOIN FETCH i.product WHERE c.user.id = :userId")
+    Optional<ShoppingCart> findWithItemsByUserId(@Param("userId") Long userId);
+}
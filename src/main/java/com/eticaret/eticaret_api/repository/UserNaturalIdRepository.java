@@ -0,0 +1,13 @@
+package com.eticaret.eticaret_api.repository;
+
+import com.eticaret.eticaret_api.entity.User;
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Kullanıcı adı natural id olarak çözülür; önce natural id önbelleğine,
+     * sonra entity önbelleğine bakılır. findByUsername her seferinde sorgu atar.
+     */
+    Optional<User> findByNaturalUsername(String username);
+}
@@ -2,11 +2,16 @@ package com.eticaret.eticaret_api.repository;
 
 import com.eticaret.eticaret_api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
      Optional<User> findByUsername(String username);
 
+     @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+     Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
 }
\ No newline at end of file
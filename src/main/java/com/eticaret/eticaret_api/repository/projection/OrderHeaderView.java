@@ -0,0 +1,11 @@
+package com.eticaret.eticaret_api.repository.projection;
+
+import java.time.LocalDateTime;
+
+public interface OrderHeaderView {
+    Long getId();
+    Long getUserId();
+    String getUsername();
+    LocalDateTime getOrderDate();
+    Double getTotalAmount();
+}
@@ -0,0 +1,9 @@
+package com.eticaret.eticaret_api.repository.projection;
+
+public interface OrderLineView {
+    Long getOrderId();
+    Long getProductId();
+    String getProductName();
+    Double getPrice();
+    Integer getQuantity();
+}
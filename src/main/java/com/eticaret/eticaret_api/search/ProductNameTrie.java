@@ -0,0 +1,309 @@
+package com.eticaret.eticaret_api.search;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Ürün adları üzerinde değişmez, sıkıştırılmış (radix) önek ağacı. Adlar katlanmış
+ * hallerine göre sıralanıp tek bir char dizisinde tutulur; düğümler nesne değil
+ * paralel int dizileridir ve her düğüm sıralı girdi dizisinde bir [lo, hi) aralığını
+ * temsil eder. Kenar etiketleri ayrıca saklanmaz, aralığın ilk adından okunur.
+ *
+ * {@value #TOP_K} girdiden büyük alt ağaçlar popülerliğe göre önceden hesaplanmış
+ * ilk-k listesini taşır; daha küçük aralıklar sorgu anında taranır. Sorgu yolu
+ * hiçbir nesne ayırmaz.
+ */
+final class ProductNameTrie {
+
+    static final int TOP_K = 10;
+
+    private static final ProductNameTrie EMPTY = build(new long[0], new String[0], new int[0]);
+
+    private final long[] productIds;
+    private final int[] popularity;
+    private final char[] nameChars;
+    private final int[] nameOffsets;
+
+    private final int[] nodeDepth;
+    private final int[] nodeLo;
+    private final int[] nodeHi;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final char[] nodeFirstChar;
+    private final int[] topOffset;
+    private final int[] topEntries;
+
+    private ProductNameTrie(long[] productIds, int[] popularity, char[] nameChars, int[] nameOffsets, Builder builder) {
+        this.productIds = productIds;
+        this.popularity = popularity;
+        this.nameChars = nameChars;
+        this.nameOffsets = nameOffsets;
+        this.nodeDepth = Arrays.copyOf(builder.depth, builder.nodeCount);
+        this.nodeLo = Arrays.copyOf(builder.lo, builder.nodeCount);
+        this.nodeHi = Arrays.copyOf(builder.hi, builder.nodeCount);
+        this.firstChild = Arrays.copyOf(builder.firstChild, builder.nodeCount);
+        this.childCount = Arrays.copyOf(builder.childCount, builder.nodeCount);
+        this.nodeFirstChar = Arrays.copyOf(builder.firstChar, builder.nodeCount);
+        this.topOffset = builder.topOffset;
+        this.topEntries = builder.topEntries;
+    }
+
+    static ProductNameTrie empty() {
+        return EMPTY;
+    }
+
+    static ProductNameTrie build(long[] ids, String[] names, int[] popularityByInput) {
+        int count = ids.length;
+        String[] keys = new String[count];
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = TurkishTextNormalizer.normalize(names[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.<Integer, String>comparing(i -> keys[i]).thenComparingLong(i -> ids[i]));
+
+        long[] sortedIds = new long[count];
+        int[] sortedPopularity = new int[count];
+        String[] sortedKeys = new String[count];
+        int[] offsets = new int[count + 1];
+        int totalChars = 0;
+        for (int i = 0; i < count; i++) {
+            totalChars += names[order[i]].length();
+        }
+        char[] chars = new char[totalChars];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int source = order[i];
+            sortedIds[i] = ids[source];
+            sortedPopularity[i] = popularityByInput[source];
+            sortedKeys[i] = keys[source];
+            offsets[i] = position;
+            names[source].getChars(0, names[source].length(), chars, position);
+            position += names[source].length();
+        }
+        offsets[count] = position;
+
+        Builder builder = new Builder(sortedKeys, sortedPopularity);
+        builder.layout();
+        builder.computeTopLists();
+        return new ProductNameTrie(sortedIds, sortedPopularity, chars, offsets, builder);
+    }
+
+    int size() {
+        return productIds.length;
+    }
+
+    long productId(int entry) {
+        return productIds[entry];
+    }
+
+    String name(int entry) {
+        return new String(nameChars, nameOffsets[entry], nameOffsets[entry + 1] - nameOffsets[entry]);
+    }
+
+    /**
+     * Öneki taşıyan en popüler adları tampona ekler. Önek karakterleri de
+     * aynı katlamadan geçirilir; eşleşme yoksa tampon değişmez.
+     */
+    void collect(CharSequence prefix, SuggestionBuffer buffer) {
+        if (productIds.length == 0) {
+            return;
+        }
+        int node = 0;
+        int position = 0;
+        int length = prefix.length();
+        while (true) {
+            int depth = nodeDepth[node];
+            int base = nameOffsets[nodeLo[node]];
+            while (position < length && position < depth) {
+                if (TurkishTextNormalizer.fold(prefix.charAt(position)) != TurkishTextNormalizer.fold(nameChars[base + position])) {
+                    return;
+                }
+                position++;
+            }
+            if (position == length) {
+                break;
+            }
+            node = findChild(node, TurkishTextNormalizer.fold(prefix.charAt(position)));
+            if (node < 0) {
+                return;
+            }
+        }
+
+        int offset = topOffset[node];
+        if (offset >= 0) {
+            for (int i = offset; i < offset + TOP_K; i++) {
+                int entry = topEntries[i];
+                buffer.offer(entry, productIds[entry], popularity[entry]);
+            }
+        } else {
+            for (int entry = nodeLo[node]; entry < nodeHi[node]; entry++) {
+                buffer.offer(entry, productIds[entry], popularity[entry]);
+            }
+        }
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            char candidate = nodeFirstChar[middle];
+            if (candidate < c) {
+                low = middle + 1;
+            } else if (candidate > c) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    // Kurulum sırasında büyüyen düğüm dizileri; kurulum bitince kırpılıp trie'ye kopyalanır
+    private static final class Builder {
+        private final String[] keys;
+        private final int[] popularity;
+
+        private int[] depth = new int[16];
+        private int[] lo = new int[16];
+        private int[] hi = new int[16];
+        private int[] firstChild = new int[16];
+        private int[] childCount = new int[16];
+        private char[] firstChar = new char[16];
+        private int nodeCount;
+
+        private int[] topOffset;
+        private int[] topEntries;
+
+        Builder(String[] keys, int[] popularity) {
+            this.keys = keys;
+            this.popularity = popularity;
+        }
+
+        // Düğümler genişlik öncelikli sırayla eklenir; böylece her düğümün çocukları ardışık durur
+        void layout() {
+            if (keys.length == 0) {
+                return;
+            }
+            addNode(0, keys.length, (char) 0, 0);
+            for (int node = 0; node < nodeCount; node++) {
+                int start = lo[node];
+                int end = hi[node];
+                int nodeDepth = commonPrefixLength(keys[start], keys[end - 1], depth[node]);
+                depth[node] = nodeDepth;
+
+                int entry = start;
+                while (entry < end && keys[entry].length() == nodeDepth) {
+                    entry++;
+                }
+                firstChild[node] = nodeCount;
+                while (entry < end) {
+                    char c = keys[entry].charAt(nodeDepth);
+                    int groupStart = entry;
+                    while (entry < end && keys[entry].charAt(nodeDepth) == c) {
+                        entry++;
+                    }
+                    addNode(groupStart, entry, c, nodeDepth + 1);
+                    childCount[node]++;
+                }
+            }
+        }
+
+        void computeTopLists() {
+            topOffset = new int[nodeCount];
+            int[] entries = new int[Math.max(16, nodeCount)];
+            int used = 0;
+            int[] candidates = new int[16];
+            // Çocuklar ebeveynden sonra eklendiği için ters sırada gezmek alt ağaçları önce hazırlar
+            for (int node = nodeCount - 1; node >= 0; node--) {
+                if (hi[node] - lo[node] <= TOP_K) {
+                    topOffset[node] = -1;
+                    continue;
+                }
+                int candidateCount = 0;
+                int childrenStart = childCount[node] > 0 ? lo[firstChild[node]] : hi[node];
+                for (int entry = lo[node]; entry < childrenStart; entry++) {
+                    if (candidateCount == candidates.length) {
+                        candidates = Arrays.copyOf(candidates, candidateCount * 2);
+                    }
+                    candidates[candidateCount++] = entry;
+                }
+                for (int child = firstChild[node]; child < firstChild[node] + childCount[node]; child++) {
+                    int from;
+                    int to;
+                    int[] source;
+                    if (topOffset[child] >= 0) {
+                        source = entries;
+                        from = topOffset[child];
+                        to = from + TOP_K;
+                    } else {
+                        source = null;
+                        from = lo[child];
+                        to = hi[child];
+                    }
+                    if (candidateCount + (to - from) > candidates.length) {
+                        candidates = Arrays.copyOf(candidates, Math.max(candidates.length * 2, candidateCount + to - from));
+                    }
+                    for (int i = from; i < to; i++) {
+                        candidates[candidateCount++] = source != null ? source[i] : i;
+                    }
+                }
+                selectTop(candidates, candidateCount);
+                if (used + TOP_K > entries.length) {
+                    entries = Arrays.copyOf(entries, Math.max(entries.length * 2, used + TOP_K));
+                }
+                System.arraycopy(candidates, 0, entries, used, TOP_K);
+                topOffset[node] = used;
+                used += TOP_K;
+            }
+            topEntries = Arrays.copyOf(entries, used);
+        }
+
+        // Adayların ilk TOP_K konumuna en popüler olanları azalan sırada yerleştirir; eşitlikte alfabetik sıra korunur
+        private void selectTop(int[] candidates, int count) {
+            for (int i = 0; i < TOP_K; i++) {
+                int best = i;
+                for (int j = i + 1; j < count; j++) {
+                    if (ranksBefore(candidates[j], candidates[best])) {
+                        best = j;
+                    }
+                }
+                int swap = candidates[i];
+                candidates[i] = candidates[best];
+                candidates[best] = swap;
+            }
+        }
+
+        private boolean ranksBefore(int entry, int other) {
+            return popularity[entry] > popularity[other] || (popularity[entry] == popularity[other] && entry < other);
+        }
+
+        // Çocuğun ortak öneki en az ebeveyn derinliği + 1 uzunluktadır; karşılaştırma oradan başlar
+        private void addNode(int start, int end, char c, int minDepth) {
+            if (nodeCount == depth.length) {
+                int capacity = nodeCount * 2;
+                depth = Arrays.copyOf(depth, capacity);
+                lo = Arrays.copyOf(lo, capacity);
+                hi = Arrays.copyOf(hi, capacity);
+                firstChild = Arrays.copyOf(firstChild, capacity);
+                childCount = Arrays.copyOf(childCount, capacity);
+                firstChar = Arrays.copyOf(firstChar, capacity);
+            }
+            depth[nodeCount] = minDepth;
+            lo[nodeCount] = start;
+            hi[nodeCount] = end;
+            firstChar[nodeCount] = c;
+            nodeCount++;
+        }
+
+        private static int commonPrefixLength(String first, String last, int from) {
+            int limit = Math.min(first.length(), last.length());
+            int i = from;
+            while (i < limit && first.charAt(i) == last.charAt(i)) {
+                i++;
+            }
+            return i;
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.eticaret.eticaret_api.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ürün adı ve açıklaması üzerinde bellek içi ters indeks. Her terimin posting
+ * listesi artan doküman numarasıyla tutulan ilkel int dizileridir; sorgular
+ * document-at-a-time birleştirme ve BM25 ile sıralanır. Ürün adındaki terimler
+ * açıklamadakilerin iki katı ağırlık alır.
+ *
+ * Okumalar paralel çalışır; ekleme ve stok güncellemesi yazma kilidi alır.
+ */
+public class ProductSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int NAME_WEIGHT = 2;
+
+    private final Map<String, PostingList> postings = new HashMap<>();
+    private final Map<Long, Integer> docIdByProductId = new HashMap<>();
+    private final BitSet inStock = new BitSet();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private long[] productIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private long totalLength;
+
+    public void add(long productId, String name, String description, int stock) {
+        Map<String, Integer> termFrequencies = new HashMap<>();
+        TurkishTextNormalizer.tokenize(name, term -> termFrequencies.merge(term, NAME_WEIGHT, Integer::sum));
+        TurkishTextNormalizer.tokenize(description, term -> termFrequencies.merge(term, 1, Integer::sum));
+        int length = termFrequencies.values().stream().mapToInt(Integer::intValue).sum();
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = docIdByProductId.get(productId);
+            if (existing != null) {
+                // Metin alanları değişmiyor; sadece stok durumu güncellenir
+                inStock.set(existing, stock > 0);
+                return;
+            }
+            int docId = docCount++;
+            if (docId == productIds.length) {
+                productIds = Arrays.copyOf(productIds, productIds.length * 2);
+                docLengths = Arrays.copyOf(docLengths, docLengths.length * 2);
+            }
+            productIds[docId] = productId;
+            docLengths[docId] = length;
+            totalLength += length;
+            inStock.set(docId, stock > 0);
+            docIdByProductId.put(productId, docId);
+            termFrequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, t -> new PostingList()).add(docId, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(long productId, int stock) {
+        lock.writeLock().lock();
+        try {
+            Integer docId = docIdByProductId.get(productId);
+            if (docId != null) {
+                inStock.set(docId, stock > 0);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<SearchHit> search(String query, int limit, boolean inStockOnly) {
+        Set<String> terms = new LinkedHashSet<>();
+        TurkishTextNormalizer.tokenize(query, terms::add);
+        if (terms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<PostingList> lists = new ArrayList<>(terms.size());
+            List<Float> idfs = new ArrayList<>(terms.size());
+            for (String term : terms) {
+                PostingList list = postings.get(term);
+                if (list != null) {
+                    lists.add(list);
+                    idfs.add((float) Math.log(1 + (docCount - list.size + 0.5) / (list.size + 0.5)));
+                }
+            }
+            if (lists.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return collectTopHits(lists, idfs, limit, inStockOnly);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<SearchHit> collectTopHits(List<PostingList> lists, List<Float> idfs, int limit, boolean inStockOnly) {
+        float averageLength = docCount == 0 ? 1f : (float) totalLength / docCount;
+        int[] cursors = new int[lists.size()];
+        TopHits topHits = new TopHits(limit);
+
+        while (true) {
+            int currentDoc = Integer.MAX_VALUE;
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                if (cursors[i] < list.size && list.docIds[cursors[i]] < currentDoc) {
+                    currentDoc = list.docIds[cursors[i]];
+                }
+            }
+            if (currentDoc == Integer.MAX_VALUE) {
+                break;
+            }
+            float score = 0f;
+            float lengthNorm = K1 * (1 - B + B * docLengths[currentDoc] / averageLength);
+            for (int i = 0; i < lists.size(); i++) {
+                PostingList list = lists.get(i);
+                if (cursors[i] < list.size && list.docIds[cursors[i]] == currentDoc) {
+                    int frequency = list.frequencies[cursors[i]];
+                    score += idfs.get(i) * frequency * (K1 + 1) / (frequency + lengthNorm);
+                    cursors[i]++;
+                }
+            }
+            if (!inStockOnly || inStock.get(currentDoc)) {
+                topHits.offer(currentDoc, score);
+            }
+        }
+        return topHits.toHits(productIds);
+    }
+
+    private static final class PostingList {
+        private int[] docIds = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int docId, int frequency) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docIds[size] = docId;
+            frequencies[size] = frequency;
+            size++;
+        }
+    }
+
+    // Sabit boyutlu min-heap: en düşük skor kökte, yeni aday ondan iyiyse yerine geçer
+    private static final class TopHits {
+        private final int[] docs;
+        private final float[] scores;
+        private int size;
+
+        TopHits(int capacity) {
+            this.docs = new int[capacity];
+            this.scores = new float[capacity];
+        }
+
+        void offer(int doc, float score) {
+            if (size < docs.length) {
+                docs[size] = doc;
+                scores[size] = score;
+                siftUp(size++);
+            } else if (score > scores[0]) {
+                docs[0] = doc;
+                scores[0] = score;
+                siftDown(0);
+            }
+        }
+
+        List<SearchHit> toHits(long[] productIds) {
+            List<SearchHit> hits = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                hits.add(new SearchHit(productIds[docs[i]], scores[i]));
+            }
+            hits.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+            return hits;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (scores[parent] <= scores[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int smallest = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && scores[left] < scores[smallest]) {
+                    smallest = left;
+                }
+                if (right < size && scores[right] < scores[smallest]) {
+                    smallest = right;
+                }
+                if (smallest == index) {
+                    return;
+                }
+                swap(smallest, index);
+                index = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            int doc = docs[i];
+            docs[i] = docs[j];
+            docs[j] = doc;
+            float score = scores[i];
+            scores[i] = scores[j];
+            scores[j] = score;
+        }
+    }
+}
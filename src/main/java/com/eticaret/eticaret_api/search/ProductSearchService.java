@@ -0,0 +1,87 @@
+package com.eticaret.eticaret_api.search;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.event.ProductStockChangedEvent;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import com.eticaret.eticaret_api.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Arama indeksini açılışta katalogdan kurar, ürün ve stok olaylarıyla
+ * artımlı olarak günceller ve GET /api/products/search isteklerini cevaplar.
+ */
+@Service
+public class ProductSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchService.class);
+    private static final int BUILD_PAGE_SIZE = 5000;
+
+    private final ProductSearchIndex index = new ProductSearchIndex();
+    private final ProductRepository productRepository;
+    private final ProductService productService;
+
+    @Autowired
+    public ProductSearchService(ProductRepository productRepository, ProductService productService) {
+        this.productRepository = productRepository;
+        this.productService = productService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long startNanos = System.nanoTime();
+        long afterId = 0L;
+        List<Product> page;
+        do {
+            page = productRepository.findPageOrderById(afterId, 0.0, Double.MAX_VALUE, 0, PageRequest.of(0, BUILD_PAGE_SIZE));
+            for (Product product : page) {
+                index.add(product.getId(), product.getName(), product.getDescription(), product.getStock());
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == BUILD_PAGE_SIZE);
+        log.info("Product search index built with {} products in {} ms",
+                index.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    public List<ProductDto> search(String query, int limit, boolean inStockOnly) {
+        List<Long> productIds = index.search(query, limit, inStockOnly).stream()
+                .map(SearchHit::getProductId)
+                .collect(Collectors.toList());
+        return productService.getProductsByIds(productIds);
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        for (ProductDto product : event.getProducts()) {
+            index.add(product.getId(), product.getName(), product.getDescription(),
+                    product.getStock() != null ? product.getStock() : 0);
+        }
+    }
+
+    // Yazma transaction'ında okunur; replika yönlendirmesi açıksa güncel stok primary'den gelir
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onStockChanged(ProductStockChangedEvent event) {
+        for (Product product : productRepository.findAllById(event.getProductIds())) {
+            index.updateStock(product.getId(), product.getStock());
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.eticaret.eticaret_api.search;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductSuggestionDto;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
+import com.eticaret.eticaret_api.repository.OrderRepository;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ürün adı önek önerileri. Ad trie'si açılışta ve periyodik olarak sipariş
+ * satırı sayılarından hesaplanan popülerlikle yeniden kurulur; arada oluşturulan
+ * ürünler katlanmış ada göre sıralı küçük bir bekleyenler dizisinde tutulup
+ * sorgularda trie sonuçlarıyla birleştirilir. Bekleyen sayısı eşiği aşınca trie
+ * yeniden kurulur.
+ */
+@Service
+public class ProductSuggestService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestService.class);
+    private static final int BUILD_PAGE_SIZE = 10000;
+
+    private final ProductRepository productRepository;
+    private final OrderRepository orderRepository;
+    private final int rebuildThreshold;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ThreadLocal<SuggestionBuffer> buffers = ThreadLocal.withInitial(SuggestionBuffer::new);
+
+    // Trie ve bekleyenler birlikte değişir; okuyucular ikisini tek referanstan tutarlı görür
+    private volatile State state = new State(ProductNameTrie.empty(), PendingProducts.EMPTY);
+
+    @Autowired
+    public ProductSuggestService(ProductRepository productRepository,
+                                 OrderRepository orderRepository,
+                                 @Value("${product.suggest.rebuild-threshold:5000}") int rebuildThreshold) {
+        this.productRepository = productRepository;
+        this.orderRepository = orderRepository;
+        this.rebuildThreshold = rebuildThreshold;
+    }
+
+    public int maxSuggestions() {
+        return ProductNameTrie.TOP_K;
+    }
+
+    public List<ProductSuggestionDto> suggest(String prefix, int limit) {
+        State current = state;
+        SuggestionBuffer buffer = buffers.get();
+        buffer.reset(limit);
+        current.trie.collect(prefix, buffer);
+        current.pending.collect(prefix, buffer);
+
+        List<ProductSuggestionDto> suggestions = new ArrayList<>(buffer.size());
+        for (int i = 0; i < buffer.size(); i++) {
+            int ref = buffer.ref(i);
+            String name = ref >= 0 ? current.trie.name(ref) : current.pending.names[-ref - 1];
+            suggestions.add(new ProductSuggestionDto(buffer.productId(i), name));
+        }
+        return suggestions;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        rebuild();
+    }
+
+    // Popülerlik sipariş geldikçe değişir; trie'yi belirli aralıklarla tazeler
+    @Scheduled(fixedDelayString = "${product.suggest.refresh-interval-ms:3600000}",
+            initialDelayString = "${product.suggest.refresh-interval-ms:3600000}")
+    public void refreshPopularity() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsCreated(ProductsCreatedEvent event) {
+        int pendingCount;
+        synchronized (this) {
+            State current = state;
+            state = new State(current.trie, current.pending.plus(event.getProducts()));
+            pendingCount = state.pending.size();
+        }
+        if (pendingCount >= rebuildThreshold) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long startNanos = System.nanoTime();
+            Map<Long, Integer> popularity = new HashMap<>();
+            for (Object[] row : orderRepository.countOrderLinesByProduct()) {
+                popularity.put((Long) row[0], (int) Math.min(Integer.MAX_VALUE, (Long) row[1]));
+            }
+
+            long[] ids = new long[BUILD_PAGE_SIZE];
+            List<String> names = new ArrayList<>();
+            long afterId = 0L;
+            List<Object[]> page;
+            do {
+                page = productRepository.findNamesAfter(afterId, PageRequest.of(0, BUILD_PAGE_SIZE));
+                for (Object[] row : page) {
+                    if (names.size() == ids.length) {
+                        ids = Arrays.copyOf(ids, ids.length * 2);
+                    }
+                    ids[names.size()] = (Long) row[0];
+                    names.add((String) row[1]);
+                }
+                if (!page.isEmpty()) {
+                    afterId = (Long) page.get(page.size() - 1)[0];
+                }
+            } while (page.size() == BUILD_PAGE_SIZE);
+
+            int count = names.size();
+            long[] productIds = Arrays.copyOf(ids, count);
+            int[] scores = new int[count];
+            for (int i = 0; i < count; i++) {
+                scores[i] = popularity.getOrDefault(productIds[i], 0);
+            }
+            ProductNameTrie trie = ProductNameTrie.build(productIds, names.toArray(new String[0]), scores);
+
+            // Okunan sayfalarda görünen bekleyenler düşer; replika gecikmesiyle henüz görünmeyenler kalır
+            synchronized (this) {
+                state = new State(trie, state.pending.without(productIds));
+            }
+            log.info("Product suggestion trie built with {} names in {} ms",
+                    count, (System.nanoTime() - startNanos) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.warn("Product suggestion trie rebuild failed, keeping the previous one", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    private record State(ProductNameTrie trie, PendingProducts pending) {
+    }
+
+    // Son kurulumdan sonra oluşturulan ürünler; katlanmış ada göre sıralı tutulur ve kopyala-yaz
+    // ile büyür, böylece sorgu öneki ikili aramayla bulur. Popülerlikleri sıfırdır
+    private static final class PendingProducts {
+        private static final PendingProducts EMPTY = new PendingProducts(new long[0], new String[0], new String[0]);
+
+        private final long[] productIds;
+        private final String[] names;
+        private final String[] keys;
+
+        private PendingProducts(long[] productIds, String[] names, String[] keys) {
+            this.productIds = productIds;
+            this.names = names;
+            this.keys = keys;
+        }
+
+        int size() {
+            return productIds.length;
+        }
+
+        PendingProducts plus(List<ProductDto> products) {
+            int added = products.size();
+            long[] addedIds = new long[added];
+            String[] addedNames = new String[added];
+            String[] addedKeys = new String[added];
+            Integer[] order = new Integer[added];
+            for (int i = 0; i < added; i++) {
+                addedIds[i] = products.get(i).getId();
+                addedNames[i] = products.get(i).getName();
+                addedKeys[i] = TurkishTextNormalizer.normalize(addedNames[i]);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> compareEntries(addedKeys[a], addedIds[a], addedKeys[b], addedIds[b]));
+
+            // Mevcut sıralı diziyle yeni girdileri tek geçişte birleştirir
+            int total = productIds.length + added;
+            long[] mergedIds = new long[total];
+            String[] mergedNames = new String[total];
+            String[] mergedKeys = new String[total];
+            int existing = 0;
+            int next = 0;
+            for (int i = 0; i < total; i++) {
+                boolean takeExisting = next == added || (existing < productIds.length
+                        && compareEntries(keys[existing], productIds[existing], addedKeys[order[next]], addedIds[order[next]]) <= 0);
+                if (takeExisting) {
+                    mergedIds[i] = productIds[existing];
+                    mergedNames[i] = names[existing];
+                    mergedKeys[i] = keys[existing];
+                    existing++;
+                } else {
+                    int source = order[next++];
+                    mergedIds[i] = addedIds[source];
+                    mergedNames[i] = addedNames[source];
+                    mergedKeys[i] = addedKeys[source];
+                }
+            }
+            return new PendingProducts(mergedIds, mergedNames, mergedKeys);
+        }
+
+        // sortedIds artan sırada olmalıdır (kurulum sayfaları id sırasıyla okunur)
+        PendingProducts without(long[] sortedIds) {
+            long[] keptIds = new long[productIds.length];
+            String[] keptNames = new String[names.length];
+            String[] keptKeys = new String[keys.length];
+            int kept = 0;
+            for (int i = 0; i < productIds.length; i++) {
+                if (Arrays.binarySearch(sortedIds, productIds[i]) < 0) {
+                    keptIds[kept] = productIds[i];
+                    keptNames[kept] = names[i];
+                    keptKeys[kept] = keys[i];
+                    kept++;
+                }
+            }
+            return new PendingProducts(Arrays.copyOf(keptIds, kept), Arrays.copyOf(keptNames, kept),
+                    Arrays.copyOf(keptKeys, kept));
+        }
+
+        // Öneki taşıyan girdiler sıralı dizide ardışıktır; tampon dolunca (hepsi sıfır puanlı) tarama biter
+        void collect(CharSequence prefix, SuggestionBuffer buffer) {
+            for (int i = lowerBound(prefix); i < keys.length && buffer.accepts(0); i++) {
+                if (comparePrefix(keys[i], prefix) != 0) {
+                    return;
+                }
+                buffer.offer(-(i + 1), productIds[i], 0);
+            }
+        }
+
+        // Anahtarı öneke göre küçük olmayan ilk girdi
+        private int lowerBound(CharSequence prefix) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (comparePrefix(keys[middle], prefix) < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // Anahtarın ilk prefix.length() karakterini katlanmış önekle karşılaştırır; sorgu yolunda nesne ayırmaz
+        private static int comparePrefix(String key, CharSequence prefix) {
+            int length = prefix.length();
+            for (int i = 0; i < length; i++) {
+                if (i == key.length()) {
+                    return -1;
+                }
+                int difference = key.charAt(i) - TurkishTextNormalizer.fold(prefix.charAt(i));
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return 0;
+        }
+
+        private static int compareEntries(String key, long productId, String otherKey, long otherProductId) {
+            int byKey = key.compareTo(otherKey);
+            return byKey != 0 ? byKey : Long.compare(productId, otherProductId);
+        }
+    }
+}
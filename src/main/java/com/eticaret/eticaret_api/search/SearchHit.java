@@ -0,0 +1,11 @@
+package com.eticaret.eticaret_api.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SearchHit {
+    private final long productId;
+    private final float score;
+}
@@ -0,0 +1,61 @@
+package com.eticaret.eticaret_api.search;
+
+/**
+ * Öneri sorgusunun sonuçlarını biriktiren, iş parçacığı başına tekrar kullanılan
+ * sabit boyutlu tampon. Girdiler popülerliğe göre azalan sırada tutulur; eşit
+ * popülerlikte önce gelen korunur ve aynı ürün ikinci kez eklenmez.
+ *
+ * Referanslar trie girdi numarasıdır; bekleyen (henüz trie'ye girmemiş) ürünler
+ * negatif referansla, -(sıra + 1) olarak tutulur.
+ */
+final class SuggestionBuffer {
+
+    private final int[] refs = new int[ProductNameTrie.TOP_K];
+    private final long[] productIds = new long[ProductNameTrie.TOP_K];
+    private final int[] scores = new int[ProductNameTrie.TOP_K];
+    private int capacity;
+    private int size;
+
+    void reset(int limit) {
+        capacity = Math.min(limit, refs.length);
+        size = 0;
+    }
+
+    void offer(int ref, long productId, int score) {
+        if (size == capacity && (capacity == 0 || score <= scores[size - 1])) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            if (productIds[i] == productId) {
+                return;
+            }
+        }
+        int position = size < capacity ? size++ : size - 1;
+        while (position > 0 && scores[position - 1] < score) {
+            refs[position] = refs[position - 1];
+            productIds[position] = productIds[position - 1];
+            scores[position] = scores[position - 1];
+            position--;
+        }
+        refs[position] = ref;
+        productIds[position] = productId;
+        scores[position] = score;
+    }
+
+    // Verilen puanlı yeni bir girdinin tampona girip giremeyeceği
+    boolean accepts(int score) {
+        return size < capacity || (capacity > 0 && score > scores[size - 1]);
+    }
+
+    int size() {
+        return size;
+    }
+
+    int ref(int index) {
+        return refs[index];
+    }
+
+    long productId(int index) {
+        return productIds[index];
+    }
+}
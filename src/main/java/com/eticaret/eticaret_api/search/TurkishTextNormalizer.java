@@ -0,0 +1,63 @@
+package com.eticaret.eticaret_api.search;
+
+import java.util.function.Consumer;
+
+/**
+ * Türkçe'ye duyarlı küçük harfe çevirme ve aksan katlama. "I" → "ı" ve "İ" → "i"
+ * kuralları uygulandıktan sonra Türkçe karakterler ASCII karşılıklarına indirgenir;
+ * böylece "Işık", "ışık" ve "isik" aynı terime düşer.
+ */
+public final class TurkishTextNormalizer {
+
+    private TurkishTextNormalizer() {
+    }
+
+    public static char fold(char c) {
+        switch (c) {
+            case 'I', 'ı', 'İ', 'i':
+                return 'i';
+            case 'Ç', 'ç':
+                return 'c';
+            case 'Ğ', 'ğ':
+                return 'g';
+            case 'Ö', 'ö':
+                return 'o';
+            case 'Ş', 'ş':
+                return 's';
+            case 'Ü', 'ü':
+                return 'u';
+            default:
+                return Character.toLowerCase(c);
+        }
+    }
+
+    public static String normalize(String text) {
+        StringBuilder builder = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            builder.append(fold(text.charAt(i)));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Harf ve rakam dışındaki karakterlerden böler. Tek harfli kelimeler atlanır,
+     * tek haneli sayılar tutulur.
+     */
+    public static void tokenize(String text, Consumer<String> sink) {
+        if (text == null) {
+            return;
+        }
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(fold(c));
+            } else if (!token.isEmpty()) {
+                if (token.length() > 1 || Character.isDigit(token.charAt(0))) {
+                    sink.accept(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+    }
+}
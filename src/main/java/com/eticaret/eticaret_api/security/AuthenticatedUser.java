@@ -0,0 +1,44 @@
+package com.eticaret.eticaret_api.security;
+
+import com.eticaret.eticaret_api.entity.UserRole;
+import lombok.Getter;
+import org.springframework.security.core.CredentialsContainer;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JWT ile kimliği doğrulanmış kullanıcı. Kullanıcı id'si, token versiyonu ve rol
+ * token'dan okunduğu için controller'lar veritabanına gitmeden id'ye ulaşır.
+ */
+@Getter
+public class AuthenticatedUser implements UserDetails, CredentialsContainer {
+
+    private final Long id;
+    private final String username;
+    private String password;
+    private final Integer tokenVersion;
+    private final UserRole role;
+    private final List<GrantedAuthority> authorities;
+
+    public AuthenticatedUser(Long id, String username, String password, Integer tokenVersion, UserRole role) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.tokenVersion = tokenVersion;
+        this.role = role;
+        this.authorities = List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public void eraseCredentials() {
+        this.password = null;
+    }
+}
@@ -1,5 +1,9 @@
 package com.eticaret.eticaret_api.security;
 
+import com.eticaret.eticaret_api.entity.UserRole;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +12,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -19,12 +22,14 @@ import java.io.IOException;
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsServiceImpl userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final Timer validationTimer;
 
     @Autowired
-    public JwtAuthFilter(JwtUtil jwtUtil, UserDetailsServiceImpl userDetailsService) {
+    public JwtAuthFilter(JwtUtil jwtUtil, TokenVersionCache tokenVersionCache, MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
-        this.userDetailsService = userDetailsService;
+        this.tokenVersionCache = tokenVersionCache;
+        this.validationTimer = Timer.builder("security.jwt.validation").register(meterRegistry);
     }
 
     @Override
@@ -36,23 +41,41 @@ public class JwtAuthFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         final String jwt;
-        final String username;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
             return;
         }
         jwt = authHeader.substring(7);
-        username = jwtUtil.extractUsername(jwt);
+        // Token bir kez parse edilir (veya önbellekten gelir), tüm claim'ler buradan okunur
+        final Claims claims = validationTimer.record(() -> jwtUtil.validateToken(jwt));
+        final String username = claims != null ? claims.getSubject() : null;
 
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-            if (jwtUtil.isTokenValid(jwt, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+            Number userId = claims.get(JwtUtil.CLAIM_USER_ID, Number.class);
+            Number tokenVersion = claims.get(JwtUtil.CLAIM_TOKEN_VERSION, Number.class);
+            // Kullanıcı bilgisi token'dan gelir; veritabanına sadece versiyon önbellekte yoksa gidilir
+            if (userId != null && tokenVersion != null
+                    && tokenVersionCache.isCurrent(userId.longValue(), tokenVersion.intValue())) {
+                AuthenticatedUser principal = new AuthenticatedUser(userId.longValue(), username, null, tokenVersion.intValue(), roleOf(claims));
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    // Rol claim'i olmayan (eski) veya tanınmayan rollü token'lar müşteri yetkisiyle çalışır
+    private static UserRole roleOf(Claims claims) {
+        String role = claims.get(JwtUtil.CLAIM_ROLE, String.class);
+        if (role == null) {
+            return UserRole.CUSTOMER;
+        }
+        try {
+            return UserRole.valueOf(role);
+        } catch (IllegalArgumentException e) {
+            return UserRole.CUSTOMER;
+        }
+    }
 }
\ No newline at end of file
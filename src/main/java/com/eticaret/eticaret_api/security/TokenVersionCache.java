@@ -0,0 +1,49 @@
+package com.eticaret.eticaret_api.security;
+
+import com.eticaret.eticaret_api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Kullanıcıların güncel token versiyonlarını bellekte tutar. Şifre değişince
+ * versiyon artar ve eski token'lar reddedilir. Kayıtlar belirli bir süre sonra
+ * yeniden yüklenir; böylece başka bir instance'ta yapılan değişiklik de en geç
+ * bu süre içinde görülür.
+ *
+ * Silinmiş veya hiç var olmamış kullanıcılar için de {@link #UNKNOWN_USER} önbelleğe
+ * alınır; aynı geçersiz token'la gelen her istek veritabanına gitmez.
+ */
+@Component
+public class TokenVersionCache {
+
+    // Versiyonlar 0'dan başlayıp yalnızca artar; hiçbir token bu değerle eşleşmez
+    static final int UNKNOWN_USER = -1;
+
+    private final LoadingCache<Long, Integer> versions;
+
+    @Autowired
+    public TokenVersionCache(UserRepository userRepository,
+                             @Value("${jwt.token-version-cache.max-size:10000}") long maxSize,
+                             @Value("${jwt.token-version-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build(userId -> userRepository.findTokenVersionById(userId).orElse(UNKNOWN_USER));
+    }
+
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        if (userId == null || tokenVersion == null) {
+            return false;
+        }
+        int current = versions.get(userId);
+        return current != UNKNOWN_USER && tokenVersion == current;
+    }
+
+    public void update(Long userId, int tokenVersion) {
+        versions.put(userId, tokenVersion);
+    }
+}
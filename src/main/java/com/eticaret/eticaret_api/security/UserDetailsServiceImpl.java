@@ -2,12 +2,10 @@ package com.eticaret.eticaret_api.security;
 
 import com.eticaret.eticaret_api.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import java.util.ArrayList;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -21,8 +19,8 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        com.eticaret.eticaret_api.entity.User user = userRepository.findByUsername(username)
+        com.eticaret.eticaret_api.entity.User user = userRepository.findByNaturalUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
-        return new User(user.getUsername(), user.getPassword(), new ArrayList<>());
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.getTokenVersion(), user.getRole());
     }
-}
\ No newline at end of file
+}
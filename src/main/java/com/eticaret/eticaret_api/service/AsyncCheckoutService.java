@@ -0,0 +1,212 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.dto.CheckoutStatus;
+import com.eticaret.eticaret_api.dto.CheckoutStatusDto;
+import com.eticaret.eticaret_api.exception.CheckoutQueueFullException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Asenkron checkout (checkout.async.enabled=true). İstek sepetin görüntüsünü alıp
+ * sınırlı bir kuyruğa bırakır ve hemen döner; sabit sayıda worker kuyruğu boşaltır ve
+ * bir seferde alabildiği kadar komutu (en fazla max-batch) tek transaction'da işler.
+ * Kuyruk doluysa istek {@link CheckoutQueueFullException} ile reddedilir (429).
+ *
+ * Bilet durumları ve idempotency anahtarları bellekte, TTL süresince tutulur; bu
+ * yüzden durum sorgusu isteği kabul eden instance'a gelmelidir.
+ */
+@Service
+public class AsyncCheckoutService {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncCheckoutService.class);
+
+    private final OrderService orderService;
+    private final boolean enabled;
+    private final int workers;
+    private final int maxBatch;
+    private final BlockingQueue<CheckoutCommand> queue;
+    private final Cache<String, Ticket> tickets;
+    // "<userId>:<Idempotency-Key>" -> bilet id'si
+    private final Cache<String, String> ticketsByIdempotencyKey;
+    private final Counter rejected;
+    private final DistributionSummary batchSize;
+
+    private ExecutorService workerPool;
+
+    @Autowired
+    public AsyncCheckoutService(OrderService orderService,
+                                MeterRegistry meterRegistry,
+                                @Value("${checkout.async.enabled:false}") boolean enabled,
+                                @Value("${checkout.async.queue-capacity:1000}") int queueCapacity,
+                                @Value("${checkout.async.workers:4}") int workers,
+                                @Value("${checkout.async.max-batch:16}") int maxBatch,
+                                @Value("${checkout.async.status-ttl-minutes:30}") long statusTtlMinutes) {
+        this.orderService = orderService;
+        this.enabled = enabled;
+        this.workers = workers;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.tickets = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(statusTtlMinutes)).build();
+        this.ticketsByIdempotencyKey = Caffeine.newBuilder().expireAfterWrite(Duration.ofMinutes(statusTtlMinutes)).build();
+        this.rejected = meterRegistry.counter("checkout.async.rejected");
+        this.batchSize = DistributionSummary.builder("checkout.async.batch.size").register(meterRegistry);
+        meterRegistry.gauge("checkout.async.queue.size", queue, BlockingQueue::size);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startWorkers() {
+        if (!enabled) {
+            return;
+        }
+        AtomicInteger threadNumber = new AtomicInteger();
+        workerPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "checkout-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workers; i++) {
+            workerPool.execute(this::drainQueue);
+        }
+    }
+
+    /**
+     * Sepeti doğrulayıp görüntüsünü alır ve komutu kuyruğa bırakır. Aynı idempotency
+     * anahtarıyla tekrar gelen istek yeni komut oluşturmaz, mevcut biletin durumunu alır.
+     */
+    public CheckoutStatusDto submit(Long userId, String idempotencyKey) {
+        String ticketId = UUID.randomUUID().toString();
+        if (idempotencyKey != null) {
+            String existing = ticketsByIdempotencyKey.asMap().putIfAbsent(userId + ":" + idempotencyKey, ticketId);
+            if (existing != null) {
+                Ticket ticket = tickets.getIfPresent(existing);
+                if (ticket != null) {
+                    return ticket.status();
+                }
+                // Bilet süresi dolmuş; anahtar yeni bilete bağlanır
+                ticketsByIdempotencyKey.put(userId + ":" + idempotencyKey, ticketId);
+            }
+        }
+        try {
+            Map<Long, Integer> quantities = orderService.snapshotCart(userId);
+            Ticket ticket = new Ticket(userId, new CheckoutStatusDto(ticketId, CheckoutStatus.QUEUED, null, null));
+            tickets.put(ticketId, ticket);
+            if (!queue.offer(new CheckoutCommand(ticketId, userId, quantities))) {
+                tickets.invalidate(ticketId);
+                rejected.increment();
+                throw new CheckoutQueueFullException();
+            }
+            return ticket.status();
+        } catch (RuntimeException e) {
+            // Kabul edilmeyen istek anahtarı tutmaz; istemci aynı anahtarla tekrar deneyebilir
+            if (idempotencyKey != null) {
+                ticketsByIdempotencyKey.asMap().remove(userId + ":" + idempotencyKey, ticketId);
+            }
+            throw e;
+        }
+    }
+
+    // Bilet başka kullanıcıya aitse de yokmuş gibi davranılır
+    public Optional<CheckoutStatusDto> getStatus(Long userId, String ticketId) {
+        Ticket ticket = tickets.getIfPresent(ticketId);
+        if (ticket == null || !ticket.userId().equals(userId)) {
+            return Optional.empty();
+        }
+        return Optional.of(ticket.status());
+    }
+
+    private void drainQueue() {
+        List<CheckoutCommand> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, maxBatch - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                log.error("Checkout batch of {} could not be processed", batch.size(), e);
+                batch.forEach(command -> update(command.ticketId(), CheckoutStatus.FAILED, null, "Checkout failed, please try again."));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void process(List<CheckoutCommand> batch) {
+        batch.forEach(command -> update(command.ticketId(), CheckoutStatus.PROCESSING, null, null));
+        batchSize.record(batch.size());
+        List<CheckoutResult> results;
+        try {
+            results = orderService.createOrdersFromSnapshots(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                results = List.of(CheckoutResult.failed(batch.get(0).ticketId(), e.getMessage()));
+            } else {
+                // Grup geri alındı: her komut kendi transaction'ında denenir, hatalı olan diğerlerini etkilemez
+                log.warn("Group commit of {} checkouts failed, retrying one by one: {}", batch.size(), e.getMessage());
+                results = new ArrayList<>(batch.size());
+                for (CheckoutCommand command : batch) {
+                    try {
+                        results.addAll(orderService.createOrdersFromSnapshots(List.of(command)));
+                    } catch (RuntimeException single) {
+                        results.add(CheckoutResult.failed(command.ticketId(), single.getMessage()));
+                    }
+                }
+            }
+        }
+        for (CheckoutResult result : results) {
+            if (result.error() == null) {
+                update(result.ticketId(), CheckoutStatus.COMPLETED, result.orderId(), null);
+            } else {
+                update(result.ticketId(), CheckoutStatus.FAILED, null, result.error());
+            }
+        }
+    }
+
+    private void update(String ticketId, CheckoutStatus status, Long orderId, String error) {
+        tickets.asMap().computeIfPresent(ticketId,
+                (id, ticket) -> new Ticket(ticket.userId(), new CheckoutStatusDto(id, status, orderId, error)));
+    }
+
+    // Kuyruktaki komutlar kapanışta işlenmez; biletleri QUEUED olarak kalır ve TTL ile silinir
+    @PreDestroy
+    public void stopWorkers() throws InterruptedException {
+        if (workerPool == null) {
+            return;
+        }
+        workerPool.shutdownNow();
+        if (!workerPool.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Checkout workers did not stop within 10 seconds; {} commands left in queue", queue.size());
+        }
+    }
+
+    private record Ticket(Long userId, CheckoutStatusDto status) {
+    }
+}
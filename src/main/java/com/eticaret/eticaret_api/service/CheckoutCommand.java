@@ -0,0 +1,13 @@
+package com.eticaret.eticaret_api.service;
+
+import java.util.Map;
+
+/**
+ * Kuyruktaki asenkron checkout isteği.
+ *
+ * @param ticketId   durum sorgusunda kullanılan bilet
+ * @param userId     siparişi veren kullanıcı
+ * @param quantities kuyruğa alındığı andaki sepet: ürün id'sine göre sıralı miktarlar
+ */
+public record CheckoutCommand(String ticketId, Long userId, Map<Long, Integer> quantities) {
+}
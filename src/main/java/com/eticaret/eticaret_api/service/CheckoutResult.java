@@ -0,0 +1,13 @@
+package com.eticaret.eticaret_api.service;
+
+// Bir checkout komutunun sonucu: ya oluşan siparişin id'si ya da hata mesajı
+public record CheckoutResult(String ticketId, Long orderId, String error) {
+
+    static CheckoutResult completed(String ticketId, Long orderId) {
+        return new CheckoutResult(ticketId, orderId, null);
+    }
+
+    static CheckoutResult failed(String ticketId, String error) {
+        return new CheckoutResult(ticketId, null, error);
+    }
+}
@@ -0,0 +1,110 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.dto.OrderDto;
+import com.eticaret.eticaret_api.entity.IdempotencyRecord;
+import com.eticaret.eticaret_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * POST /api/orders için Idempotency-Key desteği. Sonuçlar önce bellekteki sınırlı
+ * LRU'da, kalıcı olarak da idempotency_key tablosunda tutulur. Aynı anahtarla gelen
+ * eşzamanlı istekler ilk isteğin sonucunu bekler; tekrar istekleri sipariş
+ * tablolarına hiç dokunmadan ilk cevabı alır.
+ */
+@Service
+public class IdempotencyService {
+
+    private final OrderService orderService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration retention;
+    private final Cache<String, CompletableFuture<OrderDto>> results;
+
+    @Autowired
+    public IdempotencyService(OrderService orderService,
+                              IdempotencyRecordRepository idempotencyRecordRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${idempotency.cache.max-size:10000}") long maxSize,
+                              @Value("${idempotency.retention-hours:24}") long retentionHours) {
+        this.orderService = orderService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    public OrderDto createOrderOnce(Long userId, String idempotencyKey) {
+        String scopedKey = userId + ":" + idempotencyKey;
+        CompletableFuture<OrderDto> inFlight = new CompletableFuture<>();
+        CompletableFuture<OrderDto> existing = results.asMap().putIfAbsent(scopedKey, inFlight);
+        if (existing != null) {
+            return await(existing);
+        }
+        try {
+            OrderDto result = findStoredResponse(scopedKey)
+                    .orElseGet(() -> createOrReplay(userId, scopedKey));
+            inFlight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            // Başarısız denemeler saklanmaz; istemci aynı anahtarla tekrar deneyebilir
+            results.asMap().remove(scopedKey, inFlight);
+            inFlight.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.cleanup-cron:0 0 * * * *}")
+    public void purgeExpiredRecords() {
+        idempotencyRecordRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+    }
+
+    private OrderDto createOrReplay(Long userId, String scopedKey) {
+        try {
+            return orderService.createOrderDtoFromCart(userId, scopedKey);
+        } catch (DataIntegrityViolationException e) {
+            // Aynı anahtar başka bir instance'ta commit edildi
+            return findStoredResponse(scopedKey).orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<OrderDto> findStoredResponse(String scopedKey) {
+        return idempotencyRecordRepository.findById(scopedKey)
+                .filter(record -> record.getResponseBody() != null)
+                .map(this::readResponse);
+    }
+
+    private OrderDto readResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read for key: " + record.getId(), e);
+        }
+    }
+
+    private OrderDto await(CompletableFuture<OrderDto> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -3,99 +3,424 @@ package com.eticaret.eticaret_api.service;
 import com.eticaret.eticaret_api.dto.OrderDto;
 import com.eticaret.eticaret_api.dto.OrderItemDto;
 import com.eticaret.eticaret_api.entity.*;
+import com.eticaret.eticaret_api.event.ProductStockChangedEvent;
+import com.eticaret.eticaret_api.exception.InsufficientStockException;
+import com.eticaret.eticaret_api.inventory.InventoryReservationService;
+import com.eticaret.eticaret_api.reporting.SalesRollupService;
+import com.eticaret.eticaret_api.repository.IdempotencyRecordRepository;
+import com.eticaret.eticaret_api.repository.OrderEventRepository;
 import com.eticaret.eticaret_api.repository.OrderRepository;
 import com.eticaret.eticaret_api.repository.ProductRepository;
 import com.eticaret.eticaret_api.repository.ShoppingCartRepository;
 import com.eticaret.eticaret_api.repository.UserRepository;
+import com.eticaret.eticaret_api.repository.projection.OrderHeaderView;
+import com.eticaret.eticaret_api.repository.projection.OrderLineView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionStatus;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "service.method", histogram = true)
 public class OrderService {
+
+    // Koşullu düşüm: stok yetmiyorsa satır güncellenmez ve sayaç 0 döner. Versiyon da
+    // artırılır ki stoğu okumuş bir entity düzenlemesi commit'te çakışma alsın
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE product SET stock = stock - ?, version = version + 1 WHERE id = ? AND stock >= ?";
+    private static final String CURRENT_STOCK_SQL = "SELECT stock FROM product WHERE id = ?";
+
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final OrderRepository orderRepository;
     private final ShoppingCartRepository shoppingCartRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final InventoryReservationService inventoryReservationService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final SalesRollupService salesRollupService;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    // Checkout adımları ayrı ölçülür: kullanıcı, sepet, stok, sipariş kaydı, sepet temizliği
+    private final Timer userLookupTimer;
+    private final Timer cartLoadTimer;
+    private final Timer stockTimer;
+    private final Timer orderPersistTimer;
+    private final Timer cartClearTimer;
 
     @Autowired
     public OrderService(OrderRepository orderRepository,
                         ShoppingCartRepository shoppingCartRepository,
                         UserRepository userRepository,
-                        ProductRepository productRepository) {
+                        ProductRepository productRepository,
+                        JdbcTemplate jdbcTemplate,
+                        InventoryReservationService inventoryReservationService,
+                        IdempotencyRecordRepository idempotencyRecordRepository,
+                        OrderEventRepository orderEventRepository,
+                        SalesRollupService salesRollupService,
+                        ObjectMapper objectMapper,
+                        ApplicationEventPublisher eventPublisher,
+                        MeterRegistry meterRegistry) {
         this.orderRepository = orderRepository;
         this.shoppingCartRepository = shoppingCartRepository;
         this.userRepository = userRepository;
         this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.inventoryReservationService = inventoryReservationService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.orderEventRepository = orderEventRepository;
+        this.salesRollupService = salesRollupService;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.userLookupTimer = checkoutPhaseTimer(meterRegistry, "user_lookup");
+        this.cartLoadTimer = checkoutPhaseTimer(meterRegistry, "cart_load");
+        this.stockTimer = checkoutPhaseTimer(meterRegistry, "stock");
+        this.orderPersistTimer = checkoutPhaseTimer(meterRegistry, "order_persist");
+        this.cartClearTimer = checkoutPhaseTimer(meterRegistry, "cart_clear");
+    }
+
+    private static Timer checkoutPhaseTimer(MeterRegistry meterRegistry, String phase) {
+        return Timer.builder("checkout.phase").tag("phase", phase).register(meterRegistry);
     }
+
+    /**
+     * Siparişi oluşturur ve cevabı döner. Idempotency anahtarı verilmişse anahtar
+     * siparişle aynı transaction'da, siparişten önce yazılır: aynı anahtarla paralel
+     * çalışan başka bir transaction unique index'te bekler ve commit sonrası hata alır.
+     *
+     * Sepet aynı anda değiştirilirse (sepet versiyonu çakışır) checkout baştan, yeni
+     * bir transaction'da ve rastgele artan beklemelerle sınırlı sayıda tekrar denenir.
+     */
+    @RetryOnConflict
+    @Transactional
+    public OrderDto createOrderDtoFromCart(Long userId, String idempotencyKey) {
+        IdempotencyRecord record = null;
+        if (idempotencyKey != null) {
+            record = new IdempotencyRecord();
+            record.setId(idempotencyKey);
+            record.setUserId(userId);
+            record.setCreatedAt(LocalDateTime.now());
+            idempotencyRecordRepository.saveAndFlush(record);
+        }
+        Order order = createOrderFromCart(userId);
+        OrderDto dto = convertToDto(order);
+        if (record != null) {
+            record.setOrderId(order.getId());
+            record.setResponseBody(writeJson(dto));
+        }
+        return dto;
+    }
+
     @Transactional
     public Order createOrderFromCart(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+        User user = userLookupTimer.record(() -> userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId)));
 
-        ShoppingCart cart = shoppingCartRepository.findByUserId(userId)
-                .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId));
+        ShoppingCart cart = cartLoadTimer.record(() -> shoppingCartRepository.findWithItemsByUserIdForUpdate(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId)));
 
         if (cart.getCartItems() == null || cart.getCartItems().isEmpty()) {
             throw new RuntimeException("Cannot create order from an empty cart.");
         }
-        Map<Long, Integer> productRequestedQuantities = new HashMap<>();
+        // TreeMap: eşzamanlı checkout'lar ürün satırlarını hep aynı sırada kilitler (deadlock olmaz)
+        Map<Long, Integer> productRequestedQuantities = new TreeMap<>();
+        // Ürünler sepetle birlikte join ile yüklendi; ayrıca sorgulanmaz
+        Map<Long, Product> products = new HashMap<>();
         for (CartItem cartItem : cart.getCartItems()) {
             productRequestedQuantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+            products.put(cartItem.getProduct().getId(), cartItem.getProduct());
         }
-        for (Map.Entry<Long, Integer> entry : productRequestedQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer requestedQuantity = entry.getValue();
-            Product product = productRepository.findById(productId)
-                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId + " during stock check."));
-            if (product.getStock() < requestedQuantity) {
-                throw new RuntimeException("Insufficient stock for product: " + product.getName() +
-                        ". Requested: " + requestedQuantity + ", Available: " + product.getStock());
+        stockTimer.record(() -> {
+            if (inventoryReservationService.isEnabled()) {
+                // Stok değişikliği olayı, düşümler tabloya yazıldığında rezervasyon katmanından gelir
+                reserveStock(productRequestedQuantities, products);
+            } else {
+                decrementStock(productRequestedQuantities, products);
+                eventPublisher.publishEvent(new ProductStockChangedEvent(new HashSet<>(productRequestedQuantities.keySet())));
             }
-        }
+        });
 
-        Order newOrder = new Order();
-        newOrder.setUser(user);
-        newOrder.setOrderDate(LocalDateTime.now());
-        double totalAmount = 0.0;
+        Order newOrder = buildOrder(user, productRequestedQuantities, products);
+        Order savedOrder = orderPersistTimer.record(() -> orderRepository.save(newOrder));
+        appendOrderCreatedEvent(savedOrder);
+        salesRollupService.recordOrder(savedOrder);
 
+        // Flush burada yapılır ki sipariş INSERT'leri ve sepet DELETE'leri commit'e değil bu adıma yazılsın
+        cartClearTimer.record(() -> {
+            cart.getCartItems().clear();
+            shoppingCartRepository.saveAndFlush(cart);
+        });
+        return savedOrder;
+    }
+
+    /**
+     * Asenkron checkout için sepetin kuyruğa alındığı andaki görüntüsü: ürün id'si ve
+     * miktar. Sepet boşsa veya yoksa istek kuyruğa girmeden reddedilir.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, Integer> snapshotCart(Long userId) {
+        ShoppingCart cart = shoppingCartRepository.findWithItemsByUserId(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId));
+        if (cart.getCartItems().isEmpty()) {
+            throw new RuntimeException("Cannot create order from an empty cart.");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
         for (CartItem cartItem : cart.getCartItems()) {
+            quantities.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    /**
+     * Kuyruktan alınan checkout komutlarını tek transaction'da oluşturur (group commit).
+     * Sipariş komuttaki sepet görüntüsüyle oluşturulur ve aynı miktarlar sepetten düşülür;
+     * sepette bu satırlar artık yoksa (aynı sepet ikinci kez gönderilmiş veya satırlar
+     * silinmişse) komut sipariş oluşturmadan başarısız olur.
+     * Stoğu yetmeyen komutun düşümleri kendi savepoint'ine geri sarılır ve komut başarısız
+     * sonuç döner; diğer komutlar etkilenmez. Beklenmeyen bir hata tüm grubu geri alır,
+     * bu durumda çağıran komutları tek tek tekrar gönderir.
+     */
+    @RetryOnConflict
+    @Transactional
+    public List<CheckoutResult> createOrdersFromSnapshots(List<CheckoutCommand> commands) {
+        TransactionStatus transaction = TransactionAspectSupport.currentTransactionStatus();
+        List<CheckoutResult> results = new ArrayList<>(commands.size());
+        Set<Long> changedProductIds = new HashSet<>();
+        for (CheckoutCommand command : commands) {
+            ShoppingCart cart = shoppingCartRepository.findWithItemsByUserIdForUpdate(command.userId()).orElse(null);
+            if (cart == null) {
+                results.add(CheckoutResult.failed(command.ticketId(), "Shopping cart not found for user id: " + command.userId()));
+                continue;
+            }
+            // Aynı sepet için ikinci bir gönderim veya kuyruktayken silinen satırlar ikinci bir sipariş oluşturmasın
+            if (!cartContains(cart, command.quantities())) {
+                results.add(CheckoutResult.failed(command.ticketId(), "The cart changed after checkout was submitted, please check out again."));
+                continue;
+            }
+            Map<Long, Product> products = productRepository.findAllById(command.quantities().keySet()).stream()
+                    .collect(Collectors.toMap(Product::getId, Function.identity()));
+            if (products.size() < command.quantities().size()) {
+                results.add(CheckoutResult.failed(command.ticketId(), "A product in the cart no longer exists."));
+                continue;
+            }
+            String stockError = inventoryReservationService.isEnabled()
+                    ? tryReserveStock(command.quantities(), products)
+                    : tryDecrementStockInSavepoint(transaction, command.quantities(), products);
+            if (stockError != null) {
+                results.add(CheckoutResult.failed(command.ticketId(), stockError));
+                continue;
+            }
+            Order order = orderRepository.save(buildOrder(userRepository.getReferenceById(command.userId()), command.quantities(), products));
+            appendOrderCreatedEvent(order);
+            salesRollupService.recordOrder(order);
+            removeOrderedLines(cart, command.quantities());
+            // Bir sonraki komutun savepoint'i bu komutun bütün yazmalarından sonra alınsın
+            orderRepository.flush();
+            if (!inventoryReservationService.isEnabled()) {
+                changedProductIds.addAll(command.quantities().keySet());
+            }
+            results.add(CheckoutResult.completed(command.ticketId(), order.getId()));
+        }
+        if (!changedProductIds.isEmpty()) {
+            eventPublisher.publishEvent(new ProductStockChangedEvent(changedProductIds));
+        }
+        return results;
+    }
+
+    private Order buildOrder(User user, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Order order = new Order();
+        order.setUser(user);
+        order.setOrderDate(LocalDateTime.now());
+        double totalAmount = 0.0;
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            Product product = products.get(entry.getKey());
             OrderItem orderItem = new OrderItem();
-            Product product = cartItem.getProduct();
             orderItem.setProduct(product);
-            orderItem.setQuantity(cartItem.getQuantity());
+            orderItem.setQuantity(entry.getValue());
             orderItem.setPrice(product.getPrice());
-            newOrder.addOrderItem(orderItem);
-            totalAmount += (product.getPrice() * cartItem.getQuantity());
+            order.addOrderItem(orderItem);
+            totalAmount += product.getPrice() * entry.getValue();
         }
-        newOrder.setTotalAmount(totalAmount);
-        Order savedOrder = orderRepository.save(newOrder);
+        order.setTotalAmount(totalAmount);
+        return order;
+    }
+
+    // Outbox satırı siparişle aynı transaction'da yazılır; sipariş geri alınırsa olay da yazılmamış olur
+    private void appendOrderCreatedEvent(Order order) {
+        OrderEvent event = new OrderEvent();
+        event.setOrderId(order.getId());
+        event.setEventType(OrderEvent.ORDER_CREATED);
+        event.setPayload(writeJson(convertToDto(order)));
+        event.setCreatedAt(LocalDateTime.now());
+        orderEventRepository.save(event);
+    }
 
+    // Sepette görüntüdeki her ürün en az görüntüdeki miktar kadar duruyorsa true
+    private static boolean cartContains(ShoppingCart cart, Map<Long, Integer> quantities) {
+        Map<Long, Integer> inCart = new HashMap<>();
         for (CartItem cartItem : cart.getCartItems()) {
-            Product product = cartItem.getProduct();
-            int orderedQuantity = cartItem.getQuantity();
-            product.setStock(product.getStock() - orderedQuantity);
-            productRepository.save(product);
+            inCart.merge(cartItem.getProduct().getId(), cartItem.getQuantity(), Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : quantities.entrySet()) {
+            if (inCart.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+                return false;
+            }
         }
+        return true;
+    }
 
-        cart.getCartItems().clear();
-        shoppingCartRepository.save(cart);
-        return savedOrder;
+    // Kuyruktayken sepete eklenenler sepette kalır; sipariş edilen miktar kadar düşülür
+    private void removeOrderedLines(ShoppingCart cart, Map<Long, Integer> quantities) {
+        cart.getCartItems().removeIf(item -> {
+            Integer ordered = quantities.get(item.getProduct().getId());
+            if (ordered == null) {
+                return false;
+            }
+            if (item.getQuantity() > ordered) {
+                item.setQuantity(item.getQuantity() - ordered);
+                return false;
+            }
+            return true;
+        });
+    }
+
+    private String tryReserveStock(Map<Long, Integer> quantities, Map<Long, Product> products) {
+        try {
+            inventoryReservationService.reserve(quantities);
+            return null;
+        } catch (InsufficientStockException e) {
+            return insufficientStockMessage(products.get(e.getProductId()), e.getRequested(), e.getAvailable());
+        }
+    }
+
+    private String tryDecrementStockInSavepoint(TransactionStatus transaction, Map<Long, Integer> quantities, Map<Long, Product> products) {
+        Object savepoint = transaction.createSavepoint();
+        Long failedProductId = tryDecrementStock(quantities);
+        if (failedProductId != null) {
+            transaction.rollbackToSavepoint(savepoint);
+            return insufficientStockMessage(products.get(failedProductId), quantities.get(failedProductId), currentStock(failedProductId));
+        }
+        transaction.releaseSavepoint(savepoint);
+        return null;
+    }
+
+    /**
+     * Flash satış modu: stok veritabanı satırı kilitlenmeden bellekteki sayaçlardan
+     * ayrılır ve commit sonrası arka planda toplu yazılır. Herhangi bir satır için stok
+     * yetmezse hiçbir satır ayrılmaz ve exception fırlatılır.
+     */
+    private void reserveStock(Map<Long, Integer> requestedQuantities, Map<Long, Product> products) {
+        try {
+            inventoryReservationService.reserve(requestedQuantities);
+        } catch (InsufficientStockException e) {
+            throw new RuntimeException(insufficientStockMessage(products.get(e.getProductId()), e.getRequested(), e.getAvailable()));
+        }
+    }
+
+    /**
+     * Sepetteki tüm satırlar için stok tek bir JDBC batch'i ile düşülür. Kontrol ve
+     * düşüm aynı UPDATE içinde olduğu için iki checkout aynı stoğu satamaz; herhangi
+     * bir satır güncellenemezse exception fırlatılır ve tüm transaction geri alınır.
+     */
+    private void decrementStock(Map<Long, Integer> requestedQuantities, Map<Long, Product> products) {
+        Long failedProductId = tryDecrementStock(requestedQuantities);
+        if (failedProductId != null) {
+            throw new RuntimeException(insufficientStockMessage(products.get(failedProductId),
+                    requestedQuantities.get(failedProductId), currentStock(failedProductId)));
+        }
     }
 
+    // Stoğu yetmeyen ilk ürünün id'sini döner; önceki satırların düşümü geri alınmaz, çağıran geri sarar
+    private Long tryDecrementStock(Map<Long, Integer> requestedQuantities) {
+        List<Object[]> batchArgs = new ArrayList<>(requestedQuantities.size());
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            batchArgs.add(new Object[]{entry.getValue(), entry.getKey(), entry.getValue()});
+        }
+        int[] updatedRows = jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, batchArgs);
+
+        int index = 0;
+        for (Long productId : requestedQuantities.keySet()) {
+            if (updatedRows[index++] == 0) {
+                return productId;
+            }
+        }
+        return null;
+    }
+
+    // Yüklenen entity'deki stok koşullu UPDATE'ten önce (ve L2 önbellekten) okunmuş olabilir; mesaj güncel değeri gösterir
+    private int currentStock(Long productId) {
+        List<Integer> stock = jdbcTemplate.queryForList(CURRENT_STOCK_SQL, Integer.class, productId);
+        return stock.isEmpty() ? 0 : stock.get(0);
+    }
+
+    private static String insufficientStockMessage(Product product, int requested, long available) {
+        return "Insufficient stock for product: " + product.getName() + ". Requested: " + requested + ", Available: " + available;
+    }
+
+    /**
+     * Sipariş geçmişi iki sorguda okunur: önce sayfadaki sipariş başlıkları, sonra
+     * bu siparişlerin satırları. Entity yüklenmediği için lazy ilişkilerden kaynaklı
+     * sipariş/satır başına ek sorgu oluşmaz.
+     */
     @Transactional(readOnly = true)
-    public List<OrderDto> getOrdersDtoByUserId(Long userId) {
-        List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId);
-        return orders.stream().map(this::convertToDto).collect(Collectors.toList());
+    public List<OrderDto> getOrdersDtoByUserId(Long userId, int page, int size, LocalDateTime from, LocalDateTime to) {
+        List<OrderHeaderView> headers = orderRepository.findHeadersByUserId(
+                userId,
+                from != null ? from : HISTORY_START,
+                to != null ? to : HISTORY_END,
+                PageRequest.of(page, size));
+        if (headers.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> orderIds = headers.stream().map(OrderHeaderView::getId).collect(Collectors.toList());
+        Map<Long, List<OrderItemDto>> itemsByOrderId = new HashMap<>();
+        for (OrderLineView line : orderRepository.findLinesByOrderIds(orderIds)) {
+            itemsByOrderId.computeIfAbsent(line.getOrderId(), id -> new ArrayList<>()).add(convertOrderLineToDto(line));
+        }
+        return headers.stream().map(header -> {
+            OrderDto dto = new OrderDto();
+            dto.setId(header.getId());
+            dto.setUserId(header.getUserId());
+            dto.setUsername(header.getUsername());
+            dto.setOrderDate(header.getOrderDate());
+            dto.setTotalAmount(header.getTotalAmount());
+            dto.setItems(itemsByOrderId.getOrDefault(header.getId(), new ArrayList<>()));
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    private String writeJson(OrderDto dto) {
+        try {
+            return objectMapper.writeValueAsString(dto);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Order response could not be serialized", e);
+        }
     }
 
-    private OrderDto convertToDto(Order order) {
+    OrderDto convertToDto(Order order) {
         OrderDto dto = new OrderDto();
         dto.setId(order.getId());
         dto.setOrderDate(order.getOrderDate());
@@ -110,6 +435,15 @@ public class OrderService {
         return dto;
     }
 
+    private OrderItemDto convertOrderLineToDto(OrderLineView line) {
+        OrderItemDto dto = new OrderItemDto();
+        dto.setQuantity(line.getQuantity());
+        dto.setPrice(line.getPrice());
+        dto.setProductId(line.getProductId());
+        dto.setProductName(line.getProductName());
+        return dto;
+    }
+
     private OrderItemDto convertOrderItemToDto(OrderItem item) {
         OrderItemDto dto = new OrderItemDto();
         dto.setQuantity(item.getQuantity());
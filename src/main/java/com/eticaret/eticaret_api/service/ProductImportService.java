@@ -0,0 +1,255 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductImportErrorDto;
+import com.eticaret.eticaret_api.dto.ProductImportResultDto;
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * NDJSON veya CSV ürün dosyalarını satır satır okuyarak içe aktarır; dosyanın
+ * tamamı belleğe alınmaz. Geçerli satırlar product.import.batch-size'lık
+ * gruplar halinde, her grup kendi transaction'ında JDBC batch insert ile yazılır.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private final ProductService productService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public ProductImportService(ProductService productService,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                @Value("${product.import.batch-size:500}") int batchSize,
+                                @Value("${product.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.productService = productService;
+        this.entityManager = entityManager;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ProductImportResultDto importNdjson(InputStream inputStream) throws IOException {
+        return importRows(inputStream, false);
+    }
+
+    public ProductImportResultDto importCsv(InputStream inputStream) throws IOException {
+        return importRows(inputStream, true);
+    }
+
+    private ProductImportResultDto importRows(InputStream inputStream, boolean csv) throws IOException {
+        long startNanos = System.nanoTime();
+        ProductImportResultDto result = new ProductImportResultDto();
+        List<Product> batch = new ArrayList<>(batchSize);
+        long batchFirstLine = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            Map<String, Integer> csvColumns = null;
+            if (csv) {
+                String header = reader.readLine();
+                lineNumber++;
+                if (header == null) {
+                    return finish(result, startNanos);
+                }
+                csvColumns = parseCsvHeader(header);
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                result.setTotalRows(result.getTotalRows() + 1);
+
+                ProductDto productDto;
+                try {
+                    productDto = csv ? parseCsvRow(line, csvColumns) : objectMapper.readValue(line, ProductDto.class);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    recordError(result, lineNumber, "Malformed row: " + e.getMessage(), 1);
+                    continue;
+                }
+                String violations = validate(productDto);
+                if (violations != null) {
+                    recordError(result, lineNumber, violations, 1);
+                    continue;
+                }
+
+                if (batch.isEmpty()) {
+                    batchFirstLine = lineNumber;
+                }
+                batch.add(productService.convertToEntity(productDto));
+                if (batch.size() >= batchSize) {
+                    writeBatch(batch, batchFirstLine, lineNumber, result);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch, batchFirstLine, lineNumber, result);
+        }
+        return finish(result, startNanos);
+    }
+
+    private void writeBatch(List<Product> batch, long firstLine, long lastLine, ProductImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Session session = entityManager.unwrap(Session.class);
+                session.setJdbcBatchSize(batchSize);
+                // Toplu yüklenen ürünler ikinci seviye önbellekteki sık okunan kayıtları dışarı itmesin
+                session.setCacheMode(CacheMode.IGNORE);
+                for (Product product : batch) {
+                    entityManager.persist(product);
+                }
+                // Persistence context her grupta boşaltılır; bellek kullanımı dosya boyutundan bağımsız kalır
+                entityManager.flush();
+                entityManager.clear();
+            });
+            result.setImportedRows(result.getImportedRows() + batch.size());
+            eventPublisher.publishEvent(new ProductsCreatedEvent(batch.stream()
+                    .map(productService::convertToDto)
+                    .collect(Collectors.toList())));
+        } catch (RuntimeException e) {
+            log.warn("Product import batch for lines {}-{} failed", firstLine, lastLine, e);
+            recordError(result, firstLine, "Batch of lines " + firstLine + "-" + lastLine
+                    + " could not be written: " + e.getMessage(), batch.size());
+        }
+    }
+
+    private String validate(ProductDto productDto) {
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(productDto);
+        List<String> messages = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toList());
+        if (productDto.getStock() != null && productDto.getStock() < 0) {
+            messages.add("stock: Stock cannot be negative");
+        }
+        return messages.isEmpty() ? null : String.join("; ", messages);
+    }
+
+    private void recordError(ProductImportResultDto result, long lineNumber, String message, int failedRows) {
+        result.setFailedRows(result.getFailedRows() + failedRows);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ProductImportErrorDto(lineNumber, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    private ProductImportResultDto finish(ProductImportResultDto result, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos == 0 ? 0.0 : result.getImportedRows() * 1_000_000_000.0 / elapsedNanos);
+        log.info("Product import finished: {} rows, {} imported, {} failed in {} ms",
+                result.getTotalRows(), result.getImportedRows(), result.getFailedRows(), result.getElapsedMillis());
+        return result;
+    }
+
+    private Map<String, Integer> parseCsvHeader(String header) {
+        List<String> names = splitCsvLine(header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!columns.containsKey("name") || !columns.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain at least 'name' and 'price' columns.");
+        }
+        return columns;
+    }
+
+    private ProductDto parseCsvRow(String line, Map<String, Integer> columns) {
+        List<String> fields = splitCsvLine(line);
+        ProductDto productDto = new ProductDto();
+        productDto.setName(field(fields, columns, "name"));
+        productDto.setDescription(field(fields, columns, "description"));
+        String price = field(fields, columns, "price");
+        productDto.setPrice(price == null ? null : Double.parseDouble(price));
+        String stock = field(fields, columns, "stock");
+        productDto.setStock(stock == null ? null : Integer.parseInt(stock));
+        return productDto;
+    }
+
+    private String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // RFC 4180: tırnak içindeki virgüller ve "" kaçışları desteklenir (çok satırlı alanlar hariç)
+    private List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inQuotes = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (inQuotes) {
+            throw new IllegalArgumentException("Unterminated quoted field");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -1,37 +1,160 @@
 package com.eticaret.eticaret_api.service;
 
 import com.eticaret.eticaret_api.dto.ProductDto;
+import com.eticaret.eticaret_api.dto.ProductPageDto;
 import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.event.ProductsCreatedEvent;
 import com.eticaret.eticaret_api.repository.ProductRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class ProductService {
 
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String SORT_BY_ID = "id";
+    private static final String SORT_BY_PRICE = "price";
+
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ProductService(ProductRepository productRepository) {
+    public ProductService(ProductRepository productRepository, ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
     }
 
-    public List<ProductDto> getAllProducts() {
-        List<Product> products = productRepository.findAll();
-        return products.stream()
+    /**
+     * Keyset (cursor) sayfalama: OFFSET kullanılmadığı için katalog büyüdükçe
+     * sayfa maliyeti sabit kalır. Bir fazla kayıt çekilerek sonraki sayfanın
+     * olup olmadığı anlaşılır.
+     */
+    @Transactional(readOnly = true)
+    public ProductPageDto getProducts(String cursor, Integer size, Double minPrice, Double maxPrice,
+                                      boolean inStockOnly, String sort) {
+        int pageSize = resolvePageSize(size);
+        String sortKey = sort == null ? SORT_BY_ID : sort.toLowerCase();
+        double lowerPrice = minPrice != null ? minPrice : 0.0;
+        double upperPrice = maxPrice != null ? maxPrice : Double.MAX_VALUE;
+        if (lowerPrice > upperPrice) {
+            throw new IllegalArgumentException("minPrice cannot be greater than maxPrice.");
+        }
+        int minStock = inStockOnly ? 1 : 0;
+        PageRequest limit = PageRequest.of(0, pageSize + 1);
+
+        List<Product> products;
+        switch (sortKey) {
+            case SORT_BY_ID -> {
+                long afterId = cursor == null ? 0L : decodeIdCursor(cursor);
+                products = productRepository.findPageOrderById(afterId, lowerPrice, upperPrice, minStock, limit);
+            }
+            case SORT_BY_PRICE -> {
+                double afterPrice = -1.0;
+                long afterId = 0L;
+                if (cursor != null) {
+                    String[] parts = decodeCursor(cursor, SORT_BY_PRICE);
+                    afterPrice = parseCursorPart(parts[1], Double::parseDouble);
+                    afterId = parseCursorPart(parts[2], Long::parseLong);
+                }
+                products = productRepository.findPageOrderByPrice(afterPrice, afterId, lowerPrice, upperPrice, minStock, limit);
+            }
+            default -> throw new IllegalArgumentException("Unsupported sort: " + sort + ". Use 'id' or 'price'.");
+        }
+
+        boolean hasMore = products.size() > pageSize;
+        List<Product> pageItems = hasMore ? products.subList(0, pageSize) : products;
+        String nextCursor = null;
+        if (hasMore) {
+            Product last = pageItems.get(pageItems.size() - 1);
+            nextCursor = SORT_BY_PRICE.equals(sortKey)
+                    ? encodeCursor(SORT_BY_PRICE + ":" + last.getPrice() + ":" + last.getId())
+                    : encodeCursor(SORT_BY_ID + ":" + last.getId());
+        }
+        List<ProductDto> items = pageItems.stream()
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+        return new ProductPageDto(items, nextCursor);
     }
 
     public ProductDto createProduct(ProductDto productDto) {
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
-        return convertToDto(savedProduct);
+        ProductDto createdProduct = convertToDto(savedProduct);
+        eventPublisher.publishEvent(new ProductsCreatedEvent(List.of(createdProduct)));
+        return createdProduct;
+    }
+
+    // Verilen id sırası korunur (ör. arama skoruna göre sıralı sonuçlar)
+    @Transactional(readOnly = true)
+    public List<ProductDto> getProductsByIds(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return productIds.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Page size must be at least 1.");
+        }
+        return Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private long decodeIdCursor(String cursor) {
+        String[] parts = decodeCursor(cursor, SORT_BY_ID);
+        return parseCursorPart(parts[1], Long::parseLong);
+    }
+
+    private String[] decodeCursor(String cursor, String expectedSort) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        String[] parts = decoded.split(":");
+        int expectedLength = SORT_BY_PRICE.equals(expectedSort) ? 3 : 2;
+        if (parts.length != expectedLength || !parts[0].equals(expectedSort)) {
+            throw new IllegalArgumentException("Cursor does not match the requested sort.");
+        }
+        return parts;
+    }
+
+    private <T> T parseCursorPart(String part, Function<String, T> parser) {
+        try {
+            return parser.apply(part);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    private String encodeCursor(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
     }
 
-    private ProductDto convertToDto(Product product) {
+    ProductDto convertToDto(Product product) {
         ProductDto productDto = new ProductDto();
         productDto.setId(product.getId());
         productDto.setName(product.getName());
@@ -41,7 +164,7 @@ public class ProductService {
         return productDto;
     }
 
-    private Product convertToEntity(ProductDto productDto) {
+    Product convertToEntity(ProductDto productDto) {
         Product product = new Product();
         product.setName(productDto.getName());
         product.setDescription(productDto.getDescription());
@@ -53,4 +176,4 @@ public class ProductService {
         }
         return product;
     }
-}
\ No newline at end of file
+}
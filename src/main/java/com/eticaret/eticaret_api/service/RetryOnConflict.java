@@ -0,0 +1,27 @@
+package com.eticaret.eticaret_api.service;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Checkout ve sepet değişikliklerinin ortak yeniden deneme politikası: sınırlı deneme,
+ * üstel ve rastgele (jitter) bekleme, her deneme yeni bir transaction'da. Sadece
+ * {@link RetryableConflicts} tarafından geçici sayılan çakışmalar yeniden denenir.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Retryable(retryFor = {OptimisticLockingFailureException.class, DataIntegrityViolationException.class},
+        exceptionExpression = "T(com.eticaret.eticaret_api.service.RetryableConflicts).isRetryable(#root)",
+        maxAttemptsExpression = "${retry.optimistic-lock.max-attempts:4}",
+        backoff = @Backoff(delayExpression = "${retry.optimistic-lock.initial-delay-ms:20}",
+                maxDelayExpression = "${retry.optimistic-lock.max-delay-ms:200}", multiplier = 2, random = true))
+public @interface RetryOnConflict {
+}
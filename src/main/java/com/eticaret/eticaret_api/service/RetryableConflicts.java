@@ -0,0 +1,34 @@
+package com.eticaret.eticaret_api.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+/**
+ * {@link RetryOnConflict} için hangi hataların geçici olduğuna karar verir. Versiyon
+ * çakışmaları her zaman; bütünlük hatalarından ise sadece aynı ürünü aynı anda sepete
+ * ekleyen iki isteğin ürettiği (cart_id, product_id) unique ihlali yeniden denenir.
+ * Diğer kısıt hataları (yabancı anahtar, idempotency anahtarı vb.) denemeyle düzelmez.
+ */
+public final class RetryableConflicts {
+
+    static final String CART_LINE_UNIQUE_CONSTRAINT = "uk_cart_item_cart_product";
+
+    private RetryableConflicts() {
+    }
+
+    public static boolean isRetryable(Throwable throwable) {
+        if (throwable instanceof OptimisticLockingFailureException) {
+            return true;
+        }
+        if (!(throwable instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = throwable.getCause(); cause != null && cause != cause.getCause(); cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation) {
+                return CART_LINE_UNIQUE_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+        }
+        return false;
+    }
+}
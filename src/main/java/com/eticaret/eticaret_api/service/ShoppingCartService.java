@@ -1,47 +1,58 @@
 package com.eticaret.eticaret_api.service;
 
 import com.eticaret.eticaret_api.dto.CartItemDto;
+import com.eticaret.eticaret_api.dto.CartOperationDto;
+import com.eticaret.eticaret_api.dto.CartOperationType;
 import com.eticaret.eticaret_api.dto.ShoppingCartDto;
 import com.eticaret.eticaret_api.entity.CartItem;
 import com.eticaret.eticaret_api.entity.Product;
 import com.eticaret.eticaret_api.entity.ShoppingCart;
-import com.eticaret.eticaret_api.repository.CartItemRepository;
 import com.eticaret.eticaret_api.repository.ProductRepository;
 import com.eticaret.eticaret_api.repository.ShoppingCartRepository;
-import com.eticaret.eticaret_api.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
+/**
+ * Sepeti değiştiren metotlar çakışmada yeniden denenir ({@link RetryOnConflict}): sepet versiyonu
+ * (eşzamanlı değişiklik) veya (cart_id, product_id) unique kısıtı (aynı ürünü
+ * aynı anda ekleyen iki istek). Her deneme yeni bir transaction'da güncel
+ * sepeti okur; ikinci istek satırı bulur ve miktarı artırır.
+ */
 @Service
+@Timed(value = "service.method", histogram = true)
 public class ShoppingCartService {
     private final ShoppingCartRepository shoppingCartRepository;
     private final ProductRepository productRepository;
-    private final CartItemRepository cartItemRepository;
 
     @Autowired
     public ShoppingCartService(ShoppingCartRepository shoppingCartRepository,
-                               ProductRepository productRepository,
-                               UserRepository userRepository,
-                               CartItemRepository cartItemRepository) {
+                               ProductRepository productRepository) {
         this.shoppingCartRepository = shoppingCartRepository;
         this.productRepository = productRepository;
-        this.cartItemRepository = cartItemRepository;
     }
 
+    /**
+     * Satırı ekler ve güncel sepeti aynı transaction içinde, zaten yüklenmiş
+     * durumdan üretip döner. Yönetilen entity'ler commit'te flush edildiği için
+     * ayrıca save çağrısına gerek yoktur.
+     */
+    @RetryOnConflict
     @Transactional
-    public void addProductToCart(Long userId, Long productId, int quantity) {
+    public ShoppingCartDto addProductToCart(Long userId, Long productId, int quantity) {
         if (quantity <= 0) {
             throw new IllegalArgumentException("Quantity must be greater than zero.");
         }
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
-
-        ShoppingCart cart = shoppingCartRepository.findByUserId(userId)
+        ShoppingCart cart = shoppingCartRepository.findWithItemsByUserIdForUpdate(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId));
 
         Optional<CartItem> existingCartItemOpt = cart.getCartItems().stream()
@@ -50,26 +61,92 @@ public class ShoppingCartService {
         if (existingCartItemOpt.isPresent()) {
             CartItem existingCartItem = existingCartItemOpt.get();
             existingCartItem.setQuantity(existingCartItem.getQuantity() + quantity);
-            cartItemRepository.save(existingCartItem);
         } else {
+            Product product = productRepository.findById(productId)
+                    .orElseThrow(() -> new EntityNotFoundException("Product not found with id: " + productId));
             CartItem newCartItem = new CartItem();
             newCartItem.setShoppingCart(cart);
             newCartItem.setProduct(product);
             newCartItem.setQuantity(quantity);
             cart.getCartItems().add(newCartItem);
         }
-        shoppingCartRepository.save(cart);
+        return convertToDto(cart);
+    }
+
+    /**
+     * Sepet senkronizasyonu: tüm işlemler tek transaction'da uygulanır. Sepette
+     * olmayan ürünler tek bir findAllById ile yüklenir, değişiklikler commit'te
+     * tek flush ile yazılır.
+     */
+    @RetryOnConflict
+    @Transactional
+    public ShoppingCartDto applyOperations(Long userId, List<CartOperationDto> operations) {
+        ShoppingCart cart = shoppingCartRepository.findWithItemsByUserIdForUpdate(userId)
+                .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId));
+
+        Map<Long, CartItem> linesByProductId = new HashMap<>();
+        // Bu istekte silinen satırlar: aynı ürün tekrar eklenirse yeni satır yerine bu satır geri konur.
+        // Hibernate INSERT'leri orphan DELETE'lerden önce yazdığı için sil + ekle (cart_id, product_id) kısıtına takılırdı.
+        Map<Long, CartItem> removedLines = new HashMap<>();
+        Map<Long, Product> products = new HashMap<>();
+        for (CartItem item : cart.getCartItems()) {
+            linesByProductId.put(item.getProduct().getId(), item);
+            products.put(item.getProduct().getId(), item.getProduct());
+        }
+        Set<Long> productIdsToLoad = operations.stream()
+                .filter(operation -> operation.getOp() != CartOperationType.REMOVE)
+                .map(CartOperationDto::getProductId)
+                .filter(productId -> !products.containsKey(productId))
+                .collect(Collectors.toSet());
+        if (!productIdsToLoad.isEmpty()) {
+            productRepository.findAllById(productIdsToLoad).forEach(product -> products.put(product.getId(), product));
+        }
+
+        for (CartOperationDto operation : operations) {
+            Long productId = operation.getProductId();
+            CartItem line = linesByProductId.get(productId);
+            switch (operation.getOp()) {
+                case ADD -> {
+                    int quantity = requireQuantity(operation, 1);
+                    if (line != null) {
+                        line.setQuantity(line.getQuantity() + quantity);
+                    } else {
+                        linesByProductId.put(productId, restoreOrAddLine(cart, products, removedLines, productId, quantity));
+                    }
+                }
+                case SET_QUANTITY -> {
+                    int quantity = requireQuantity(operation, 0);
+                    if (quantity == 0) {
+                        if (line != null) {
+                            removeLine(cart, linesByProductId, removedLines, line);
+                        }
+                    } else if (line != null) {
+                        line.setQuantity(quantity);
+                    } else {
+                        linesByProductId.put(productId, restoreOrAddLine(cart, products, removedLines, productId, quantity));
+                    }
+                }
+                case REMOVE -> {
+                    // Sepette olmayan ürünü silmek hata değildir; senkronizasyon tekrar gönderilebilir
+                    if (line != null) {
+                        removeLine(cart, linesByProductId, removedLines, line);
+                    }
+                }
+            }
+        }
+        return convertToDto(cart);
     }
 
     @Transactional(readOnly = true)
     public Optional<ShoppingCartDto> getCartDtoByUserId(Long userId) {
-        return shoppingCartRepository.findByUserId(userId)
+        return shoppingCartRepository.findWithItemsByUserId(userId)
                 .map(this::convertToDto);
     }
 
+    @RetryOnConflict
     @Transactional
-    public void removeProductFromCart(Long userId, Long productId) {
-        ShoppingCart cart = shoppingCartRepository.findByUserId(userId)
+    public ShoppingCartDto removeProductFromCart(Long userId, Long productId) {
+        ShoppingCart cart = shoppingCartRepository.findWithItemsByUserIdForUpdate(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Shopping cart not found for user id: " + userId));
 
         CartItem itemToRemove = cart.getCartItems().stream()
@@ -78,10 +155,50 @@ public class ShoppingCartService {
                 .orElseThrow(() -> new EntityNotFoundException("Product with id: " + productId + " not found in cart"));
 
         cart.getCartItems().remove(itemToRemove);
-        shoppingCartRepository.save(cart);
+        return convertToDto(cart);
+    }
+
+    private int requireQuantity(CartOperationDto operation, int minimum) {
+        if (operation.getQuantity() == null || operation.getQuantity() < minimum) {
+            throw new IllegalArgumentException("Quantity must be at least " + minimum + " for " + operation.getOp()
+                    + " on product id: " + operation.getProductId());
+        }
+        return operation.getQuantity();
+    }
+
+    private void removeLine(ShoppingCart cart, Map<Long, CartItem> linesByProductId, Map<Long, CartItem> removedLines, CartItem line) {
+        Long productId = line.getProduct().getId();
+        cart.getCartItems().remove(line);
+        linesByProductId.remove(productId);
+        removedLines.put(productId, line);
+    }
+
+    // Koleksiyona geri konan satır flush'ta orphan sayılmaz; satır silinmez, sadece miktarı güncellenir
+    private CartItem restoreOrAddLine(ShoppingCart cart, Map<Long, Product> products, Map<Long, CartItem> removedLines,
+                                      Long productId, int quantity) {
+        CartItem removed = removedLines.remove(productId);
+        if (removed == null) {
+            return addLine(cart, products, productId, quantity);
+        }
+        removed.setQuantity(quantity);
+        cart.getCartItems().add(removed);
+        return removed;
+    }
+
+    private CartItem addLine(ShoppingCart cart, Map<Long, Product> products, Long productId, int quantity) {
+        Product product = products.get(productId);
+        if (product == null) {
+            throw new EntityNotFoundException("Product not found with id: " + productId);
+        }
+        CartItem newCartItem = new CartItem();
+        newCartItem.setShoppingCart(cart);
+        newCartItem.setProduct(product);
+        newCartItem.setQuantity(quantity);
+        cart.getCartItems().add(newCartItem);
+        return newCartItem;
     }
 
-    private ShoppingCartDto convertToDto(ShoppingCart cart) {
+    ShoppingCartDto convertToDto(ShoppingCart cart) {
         ShoppingCartDto dto = new ShoppingCartDto();
         dto.setId(cart.getId());
         if (cart.getUser() != null) {
@@ -106,7 +223,7 @@ public class ShoppingCartService {
         return dto;
     }
 
-    private Double calculateTotalAmount(ShoppingCart cart) {
+    Double calculateTotalAmount(ShoppingCart cart) {
         if (cart.getCartItems() == null) {
             return 0.0;
         }
@@ -2,31 +2,62 @@ package com.eticaret.eticaret_api.service;
 
 import com.eticaret.eticaret_api.entity.ShoppingCart;
 import com.eticaret.eticaret_api.entity.User;
+import com.eticaret.eticaret_api.entity.UserRole;
 import com.eticaret.eticaret_api.repository.UserRepository;
+import com.eticaret.eticaret_api.security.TokenVersionCache;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionCache tokenVersionCache;
 
     @Autowired
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, TokenVersionCache tokenVersionCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionCache = tokenVersionCache;
     }
 
     @Transactional
     public User registerUser(User newUser) {
         String hashedPassword = passwordEncoder.encode(newUser.getPassword());
         newUser.setPassword(hashedPassword);
+        newUser.setTokenVersion(0);
+        // Kayıtla sadece müşteri hesabı açılır; yönetici rolü veritabanından verilir
+        newUser.setRole(UserRole.CUSTOMER);
         ShoppingCart newShoppingCart = new ShoppingCart();
         newShoppingCart.setUser(newUser);
         newUser.setShoppingCart(newShoppingCart);
         return userRepository.save(newUser);
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public User changePassword(Long userId, String currentPassword, String newPassword) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException("User not found with id: " + userId));
+        if (!passwordEncoder.matches(currentPassword, user.getPassword())) {
+            throw new IllegalArgumentException("Current password is incorrect.");
+        }
+        user.setPassword(passwordEncoder.encode(newPassword));
+        final int newVersion = user.getTokenVersion() + 1;
+        user.setTokenVersion(newVersion);
+
+        // Önbellek commit'ten sonra güncellenir; rollback olursa eski token'lar geçerli kalır
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                tokenVersionCache.update(userId, newVersion);
+            }
+        });
+        return user;
+    }
+}
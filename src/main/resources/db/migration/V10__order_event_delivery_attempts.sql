@@ -0,0 +1,10 @@
+-- Teslim edilemeyen olay artık grubunu sonsuza kadar geri almaz: her başarısız deneme sayılır,
+-- sonraki deneme üstel beklemeyle ertelenir, sınırı aşan olay parked_at ile kenara alınır.
+ALTER TABLE order_event ADD COLUMN attempts INTEGER DEFAULT 0 NOT NULL;
+ALTER TABLE order_event ADD COLUMN next_attempt_at TIMESTAMP(6);
+ALTER TABLE order_event ADD COLUMN parked_at TIMESTAMP(6);
+ALTER TABLE order_event ADD COLUMN last_error VARCHAR(500);
+
+-- Park edilen satırlar da bekleyen indeksinden çıkar
+DROP INDEX order_event_pending_idx;
+CREATE INDEX order_event_pending_idx ON order_event (id) WHERE dispatched_at IS NULL AND parked_at IS NULL;
@@ -0,0 +1,60 @@
+-- Başlangıç şeması: Flyway'den önceki kodun ddl-auto=update ile entity'lerden ürettiği şemanın aynısı.
+-- Mevcut veritabanlarında bu sürüm çalıştırılmaz (spring.flyway.baseline-version=1); sonradan
+-- eklenen her şey V2 ve sonrasındadır, böylece yeni ve baseline'lanmış veritabanları aynı yoldan geçer.
+
+CREATE TABLE product (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(100)     NOT NULL,
+    description VARCHAR(500),
+    price       DOUBLE PRECISION NOT NULL,
+    stock       INTEGER DEFAULT 0 NOT NULL,
+    CONSTRAINT product_pkey PRIMARY KEY (id)
+);
+
+CREATE TABLE users (
+    id       BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255) NOT NULL,
+    CONSTRAINT users_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE shopping_cart (
+    id      BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id BIGINT,
+    CONSTRAINT shopping_cart_pkey PRIMARY KEY (id),
+    CONSTRAINT uk_shopping_cart_user_id UNIQUE (user_id),
+    CONSTRAINT fk_shopping_cart_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE cart_item (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    cart_id    BIGINT  NOT NULL,
+    product_id BIGINT  NOT NULL,
+    quantity   INTEGER NOT NULL,
+    CONSTRAINT cart_item_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_cart_item_cart FOREIGN KEY (cart_id) REFERENCES shopping_cart (id),
+    CONSTRAINT fk_cart_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE orders (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id      BIGINT           NOT NULL,
+    order_date   TIMESTAMP(6)     NOT NULL,
+    total_amount DOUBLE PRECISION NOT NULL,
+    CONSTRAINT orders_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_item (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id   BIGINT           NOT NULL,
+    product_id BIGINT,
+    quantity   INTEGER          NOT NULL,
+    price      DOUBLE PRECISION NOT NULL,
+    CONSTRAINT order_item_pkey PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
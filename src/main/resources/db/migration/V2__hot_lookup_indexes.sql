@@ -0,0 +1,33 @@
+-- Sık kullanılan sorgular için indeksler. IF NOT EXISTS: ddl-auto ile oluşmuş, indeksleri
+-- elle eklenmiş olabilecek eski veritabanlarında da güvenle çalışır.
+
+-- Sepetin kullanıcıdan bulunması (findByUserId, findWithItemsByUserId) OneToOne ilişkisinin
+-- shopping_cart.user_id üzerindeki unique kısıtının indeksini kullanır; ayrı indeks gerekmez.
+
+-- Sipariş geçmişi: kullanıcının siparişleri tarihe göre azalan, aynı tarihte id'ye göre
+CREATE INDEX IF NOT EXISTS idx_orders_user_id_order_date ON orders (user_id, order_date DESC, id DESC);
+
+-- Sipariş satırları sipariş id'lerinden okunur (findLinesByOrderIds)
+CREATE INDEX IF NOT EXISTS idx_order_item_order_id ON order_item (order_id);
+
+-- Fiyata göre katalog sayfalaması (findPageOrderByPrice) anahtar kümesiyle ilerler
+CREATE INDEX IF NOT EXISTS idx_product_price_id ON product (price, id);
+
+-- Sepette bir ürün tek satırdır. Eşzamanlı eklemelerden kalmış olası çift satırlar
+-- kısıttan önce en küçük id'li satırda toplanır.
+UPDATE cart_item keep
+SET quantity = dup.total_quantity
+FROM (SELECT MIN(id) AS keep_id, SUM(quantity) AS total_quantity
+      FROM cart_item
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) dup
+WHERE keep.id = dup.keep_id;
+
+DELETE FROM cart_item extra
+USING cart_item keep
+WHERE extra.cart_id = keep.cart_id
+  AND extra.product_id = keep.product_id
+  AND extra.id > keep.id;
+
+-- Unique kısıt (cart_id, product_id) indeksini de sağlar; cart_id ile başlayan aramalar onu kullanır
+ALTER TABLE cart_item ADD CONSTRAINT uk_cart_item_cart_product UNIQUE (cart_id, product_id);
@@ -0,0 +1,3 @@
+-- İyimser kilitleme için versiyon kolonları; mevcut satırlar 0'dan başlar
+ALTER TABLE product ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE shopping_cart ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
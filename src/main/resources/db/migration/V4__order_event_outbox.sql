@@ -0,0 +1,14 @@
+-- Sipariş olayları outbox'ı: siparişle aynı transaction'da yazılır, arka planda dağıtılır
+CREATE TABLE order_event (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    order_id      BIGINT       NOT NULL,
+    event_type    VARCHAR(50)  NOT NULL,
+    payload       TEXT         NOT NULL,
+    created_at    TIMESTAMP(6) NOT NULL,
+    dispatched_at TIMESTAMP(6),
+    CONSTRAINT order_event_pkey PRIMARY KEY (id)
+);
+
+-- Dağıtıcı sadece bekleyen satırları id sırasıyla okur; dağıtılmış satırlar indekse girmez
+CREATE INDEX order_event_pending_idx ON order_event (id) WHERE dispatched_at IS NULL;
+CREATE INDEX order_event_dispatched_at_idx ON order_event (dispatched_at) WHERE dispatched_at IS NOT NULL;
@@ -0,0 +1,39 @@
+-- Satış özetleri: her commit edilen siparişte artımlı güncellenir, raporlar ham siparişleri taramaz.
+-- Günlük toplam satırı her checkout'ta güncellendiği için order id'sine göre 16 şeride bölünür;
+-- aynı güne yazan siparişler tek satırda sıraya girmez.
+CREATE TABLE sales_daily (
+    sale_date   DATE             NOT NULL,
+    shard       SMALLINT         NOT NULL,
+    order_count BIGINT           NOT NULL,
+    units       BIGINT           NOT NULL,
+    revenue     DOUBLE PRECISION NOT NULL,
+    CONSTRAINT sales_daily_pkey PRIMARY KEY (sale_date, shard)
+);
+
+CREATE TABLE sales_daily_product (
+    product_id BIGINT           NOT NULL,
+    sale_date  DATE             NOT NULL,
+    units      BIGINT           NOT NULL,
+    revenue    DOUBLE PRECISION NOT NULL,
+    CONSTRAINT sales_daily_product_pkey PRIMARY KEY (product_id, sale_date)
+);
+
+-- Tarih aralığına göre ürün sıralaması için
+CREATE INDEX sales_daily_product_sale_date_idx ON sales_daily_product (sale_date);
+
+-- Yeniden oluşturma işi siparişleri gün aralığıyla okur
+CREATE INDEX orders_order_date_idx ON orders (order_date);
+
+-- Mevcut sipariş geçmişi bir kez özetlenir; sonraki düzeltmeler /api/admin/sales/rebuild ile yapılır
+INSERT INTO sales_daily (sale_date, shard, order_count, units, revenue)
+SELECT CAST(o.order_date AS DATE), CAST(o.id % 16 AS SMALLINT), COUNT(*), SUM(l.units), SUM(o.total_amount)
+FROM orders o
+JOIN (SELECT order_id, SUM(quantity) AS units FROM order_item GROUP BY order_id) l ON l.order_id = o.id
+GROUP BY 1, 2;
+
+INSERT INTO sales_daily_product (product_id, sale_date, units, revenue)
+SELECT i.product_id, CAST(o.order_date AS DATE), SUM(i.quantity), SUM(i.quantity * i.price)
+FROM order_item i
+JOIN orders o ON o.id = i.order_id
+WHERE i.product_id IS NOT NULL
+GROUP BY 1, 2;
@@ -0,0 +1,3 @@
+-- Kullanıcı rolü: /api/admin/** sadece ADMIN'e açık. Mevcut hesaplar müşteri olarak başlar;
+-- yönetici yetkisi elle verilir: UPDATE users SET role = 'ADMIN' WHERE username = '...'
+ALTER TABLE users ADD COLUMN role VARCHAR(20) DEFAULT 'CUSTOMER' NOT NULL;
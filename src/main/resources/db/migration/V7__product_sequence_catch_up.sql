@@ -0,0 +1,12 @@
+-- V1'de (ddl-auto şeması) ürün id'leri IDENTITY ile üretilir ve product_seq yoktur. Ara sürümlerde
+-- ddl-auto ile oluşmuş olabileceği için IF NOT EXISTS; sıra mevcut en büyük id'nin ötesine alınır.
+CREATE SEQUENCE IF NOT EXISTS product_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE product_seq INCREMENT BY 50;
+
+-- Id'ler artık sadece product_seq'ten gelir; IDENTITY kaldırılır
+ALTER TABLE product ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+-- Hibernate'in pooled optimizer'ı nextval'ın döndürdüğü değeri bloğun üst sınırı sayar ve
+-- (değer - 49) .. değer aralığını dağıtır. Sıra MAX(id) + 50'ye ayarlanınca bir sonraki
+-- nextval MAX(id) + 100 döner, ilk blok MAX(id) + 51'den başlar ve mevcut id'lerle çakışmaz.
+SELECT setval('product_seq', COALESCE(MAX(id), 0) + 50) FROM product;
@@ -0,0 +1,15 @@
+-- V1'den sonra eklenen ama önceki migration'larda yer almayan nesneler. Flyway'den önceki ara
+-- sürümler bunları ddl-auto=update ile oluşturmuş olabilir; bu yüzden IF NOT EXISTS.
+
+-- Şifre değişince eski token'lar geçersiz olsun diye token'a yazılan sürüm
+ALTER TABLE users ADD COLUMN IF NOT EXISTS token_version INTEGER DEFAULT 0 NOT NULL;
+
+-- Idempotency-Key ile gönderilen checkout'ların sonucu; anahtar "<userId>:<key>" biçimindedir
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    id            VARCHAR(150) NOT NULL,
+    user_id       BIGINT       NOT NULL,
+    order_id      BIGINT,
+    response_body TEXT,
+    created_at    TIMESTAMP(6) NOT NULL,
+    CONSTRAINT idempotency_key_pkey PRIMARY KEY (id)
+);
@@ -0,0 +1,8 @@
+-- Çok satan bir ürünün günlük satırı her checkout'ta güncellenir ve o ürünü alan tüm siparişler
+-- aynı satır kilidinde sıraya girer. sales_daily gibi order id'sine göre 16 şeride bölünür;
+-- raporlar şeritleri okurken toplar. Mevcut satırlar şerit 0'da kalır.
+ALTER TABLE sales_daily_product ADD COLUMN shard SMALLINT NOT NULL DEFAULT 0;
+ALTER TABLE sales_daily_product ALTER COLUMN shard DROP DEFAULT;
+
+ALTER TABLE sales_daily_product DROP CONSTRAINT sales_daily_product_pkey;
+ALTER TABLE sales_daily_product ADD CONSTRAINT sales_daily_product_pkey PRIMARY KEY (product_id, sale_date, shard);
@@ -0,0 +1,108 @@
+package com.eticaret.eticaret_api;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flyway'den önce ddl-auto=update ile oluşmuş bir veritabanının yükseltilmesi: şema V1
+ * ile kurulur ama Flyway geçmişi yoktur. Uygulama bu veritabanını V1'de baseline'layıp
+ * V2 ve sonrasını uygulamalı ve ddl-auto=validate ile açılmalıdır.
+ *
+ * Açılış süresi karşılaştırması da buradadır: aynı, güncel şemalı veritabanında eski
+ * yapılandırma (Flyway kapalı, ddl-auto=update) ile yenisi (Flyway + validate) loglanır.
+ */
+class SchemaMigrationIntegrationTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrationIntegrationTest.class);
+    private static final int STARTUP_RUNS = 3;
+
+    private static EmbeddedPostgres postgres;
+
+    @BeforeAll
+    static void startDatabase() throws Exception {
+        postgres = EmbeddedPostgres.builder().start();
+    }
+
+    @AfterAll
+    static void stopDatabase() throws Exception {
+        postgres.close();
+    }
+
+    @Test
+    void databaseCreatedByDdlAutoIsBaselinedAndMigrated() {
+        DataSource dataSource = createDatabase("legacy_upgrade");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/V1__baseline_schema.sql")).execute(dataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("INSERT INTO product (id, name, price, stock) VALUES (120, 'Eski ürün', 10.0, 3)");
+        jdbcTemplate.update("INSERT INTO users (username, password, email) VALUES ('legacy', 'x', 'legacy@example.com')");
+
+        try (ConfigurableApplicationContext ignored = start("legacy_upgrade")) {
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT version FROM flyway_schema_history WHERE success ORDER BY installed_rank DESC LIMIT 1", String.class))
+                    .isEqualTo("10");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT version FROM flyway_schema_history WHERE type = 'BASELINE'", String.class))
+                    .isEqualTo("1");
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT token_version FROM users WHERE username = 'legacy'", Integer.class))
+                    .isZero();
+            // Pooled optimizer'ın ilk bloğu mevcut id'lerin ötesinden başlar
+            assertThat(jdbcTemplate.queryForObject("SELECT nextval('product_seq')", Long.class) - 49)
+                    .isGreaterThan(120L);
+        }
+    }
+
+    @Test
+    void logsStartupTimeWithDdlAutoUpdateAndWithFlywayValidate() {
+        createDatabase("startup_timing");
+        // İlk açılış migration'ları uygular; karşılaştırma ikisinin de güncel şemayı bulduğu durumdadır
+        start("startup_timing").close();
+
+        List<Long> update = new ArrayList<>();
+        List<Long> validate = new ArrayList<>();
+        for (int i = 0; i < STARTUP_RUNS; i++) {
+            update.add(timeStartup("startup_timing",
+                    "--spring.flyway.enabled=false", "--spring.jpa.hibernate.ddl-auto=update"));
+            validate.add(timeStartup("startup_timing"));
+        }
+        log.info("Startup ms over {} runs: ddl-auto=update {}, flyway + validate {}", STARTUP_RUNS, update, validate);
+        assertThat(validate).hasSize(STARTUP_RUNS);
+    }
+
+    private long timeStartup(String database, String... extraArgs) {
+        long startNanos = System.nanoTime();
+        start(database, extraArgs).close();
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", database),
+                "--spring.datasource.username=postgres",
+                "--server.port=0"));
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(EticaretApplication.class)
+                .profiles("test")
+                .run(args.toArray(new String[0]));
+    }
+
+    private static DataSource createDatabase(String name) {
+        new JdbcTemplate(postgres.getPostgresDatabase()).execute("CREATE DATABASE " + name);
+        return new DriverManagerDataSource(postgres.getJdbcUrl("postgres", name), "postgres", "postgres");
+    }
+}
@@ -0,0 +1,167 @@
+package com.eticaret.eticaret_api.controller;
+
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import com.eticaret.eticaret_api.support.PostgresIntegrationTest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * @QueryBudget sınırlarının ölçümü: test profilinde diagnostics.query-budget.mode=FAIL
+ * olduğundan sınırı aşan veya aynı SELECT'i tekrarlayan istek hata ile döner. Her
+ * işaretli uç nokta sınırının dayandığı en kötü durumla çağrılır (100 işlemlik PATCH,
+ * 50 satırlık sepetle checkout).
+ */
+@AutoConfigureMockMvc
+class QueryBudgetIntegrationTest extends PostgresIntegrationTest {
+
+    private static final String PASSWORD = "password-123";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private String username;
+    private String token;
+
+    @BeforeEach
+    void registerAndLogin() throws Exception {
+        username = "budget-" + UUID.randomUUID().toString().substring(0, 8);
+        send(post("/api/users/register"), Map.of(
+                "username", username,
+                "password", PASSWORD,
+                "email", username + "@example.com"))
+                .andExpect(status().isCreated());
+        token = login(PASSWORD);
+    }
+
+    @Test
+    void productEndpointsStayWithinBudget() throws Exception {
+        String name = "Bütçe çaydanlık " + UUID.randomUUID();
+        authorized(post("/api/products"), Map.of("name", name, "description", "Paslanmaz çelik", "price", 199.9, "stock", 5))
+                .andExpect(status().isCreated());
+
+        // Katalog uçları da kimlik doğrulaması ister (SecurityConfig: anyRequest().authenticated())
+        mockMvc.perform(withToken(get("/api/products")).param("size", "50")).andExpect(status().isOk());
+        mockMvc.perform(withToken(get("/api/products")).param("inStock", "true").param("sort", "price"))
+                .andExpect(status().isOk());
+        mockMvc.perform(withToken(get("/api/products/search")).param("q", "çaydanlık").param("inStock", "true"))
+                .andExpect(status().isOk());
+        mockMvc.perform(withToken(get("/api/products/suggest")).param("prefix", "Bütçe")).andExpect(status().isOk());
+    }
+
+    // En kötü durum: boş sepete 100 yeni ürün (her satır ayrı IDENTITY INSERT)
+    @Test
+    void cartEndpointsStayWithinBudget() throws Exception {
+        List<Product> products = createProducts(100, 50);
+
+        authorized(post("/api/cart/add"), Map.of("productId", products.get(0).getId(), "quantity", 1))
+                .andExpect(status().isOk());
+
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Product product : products) {
+            operations.add(Map.of("op", "ADD", "productId", product.getId(), "quantity", 2));
+        }
+        authorized(patch("/api/cart"), Map.of("operations", operations)).andExpect(status().isOk());
+
+        // Silinen satırın aynı istekte geri eklenmesi, miktar güncellemesi ve silme bir arada
+        authorized(patch("/api/cart"), Map.of("operations", List.of(
+                Map.of("op", "REMOVE", "productId", products.get(1).getId()),
+                Map.of("op", "ADD", "productId", products.get(1).getId(), "quantity", 1),
+                Map.of("op", "SET_QUANTITY", "productId", products.get(2).getId(), "quantity", 5),
+                Map.of("op", "SET_QUANTITY", "productId", products.get(3).getId(), "quantity", 0))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(withToken(get("/api/cart"))).andExpect(status().isOk());
+        mockMvc.perform(withToken(delete("/api/cart/remove/{productId}", products.get(4).getId())))
+                .andExpect(status().isOk());
+    }
+
+    // En kötü durum: 50 satırlık sepet (her sipariş satırı ayrı IDENTITY INSERT)
+    @Test
+    void orderEndpointsStayWithinBudget() throws Exception {
+        List<Map<String, Object>> operations = new ArrayList<>();
+        for (Product product : createProducts(50, 10)) {
+            operations.add(Map.of("op", "ADD", "productId", product.getId(), "quantity", 1));
+        }
+        authorized(patch("/api/cart"), Map.of("operations", operations)).andExpect(status().isOk());
+
+        mockMvc.perform(withToken(post("/api/orders")).header("Idempotency-Key", UUID.randomUUID().toString()))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(withToken(get("/api/orders"))).andExpect(status().isOk());
+        mockMvc.perform(withToken(get("/api/orders")).param("from", "2020-01-01").param("to", "2100-01-01"))
+                .andExpect(status().isOk());
+        // Senkron modda bilet yoktur; uç nokta yine de veritabanına gitmeden yanıt vermelidir
+        mockMvc.perform(withToken(get("/api/orders/{ticketId}/status", UUID.randomUUID().toString())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void accountEndpointsStayWithinBudget() throws Exception {
+        authorized(put("/api/users/me/password"), Map.of("currentPassword", PASSWORD, "newPassword", "password-456"))
+                .andExpect(status().isOk());
+        send(post("/api/auth/login"), Map.of("username", username, "password", "wrong-password"))
+                .andExpect(status().isUnauthorized());
+        login("password-456");
+    }
+
+    private String login(String password) throws Exception {
+        String body = send(post("/api/auth/login"), Map.of("username", username, "password", password))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.read(body, "$.jwt");
+    }
+
+    private List<Product> createProducts(int count, int stock) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = new Product();
+            product.setName("Budget " + run + " " + i);
+            product.setPrice(10.0 + i);
+            product.setStock(stock);
+            products.add(product);
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private ResultActions authorized(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return send(withToken(request), body);
+    }
+
+    private ResultActions send(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        return mockMvc.perform(request
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(body)));
+    }
+
+    private MockHttpServletRequestBuilder withToken(MockHttpServletRequestBuilder request) {
+        return request.header(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+    }
+}
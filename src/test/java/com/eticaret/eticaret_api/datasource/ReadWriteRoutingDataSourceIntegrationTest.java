@@ -0,0 +1,160 @@
+package com.eticaret.eticaret_api.datasource;
+
+import com.eticaret.eticaret_api.entity.UserRole;
+import com.eticaret.eticaret_api.security.AuthenticatedUser;
+import com.zaxxer.hikari.HikariDataSource;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * İki gömülü PostgreSQL üzerinde yönlendirme: her veritabanında kendi adını tutan bir
+ * tablo vardır, transaction'ın hangi sunucuya gittiği bu adla okunur. Bağlamdaki gibi
+ * LazyConnectionDataSourceProxy ve transaction yöneticisi arkasında çalışır.
+ */
+class ReadWriteRoutingDataSourceIntegrationTest {
+
+    private static final String WHICH_NODE_SQL = "SELECT name FROM node";
+    private static final long READ_YOUR_WRITES_MS = 60_000;
+    private static final long REPLICA_DOWN_COOLDOWN_MS = 60_000;
+
+    private static EmbeddedPostgres primary;
+    private static EmbeddedPostgres replica;
+
+    @BeforeAll
+    static void startDatabases() throws Exception {
+        primary = startNode("primary");
+        replica = startNode("replica");
+    }
+
+    @AfterAll
+    static void stopDatabases() throws Exception {
+        primary.close();
+        replica.close();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndWritesToThePrimary() {
+        try (Routing routing = new Routing(replica)) {
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("replica");
+            assertThat(routing.readWrite(WHICH_NODE_SQL)).isEqualTo("primary");
+
+            routing.write("INSERT INTO note (text) VALUES ('written')");
+            assertThat(countNotes(primary, "written")).isEqualTo(1);
+            assertThat(countNotes(replica, "written")).isZero();
+        }
+    }
+
+    @Test
+    void readsRightAfterAUsersWriteStayOnThePrimary() {
+        try (Routing routing = new Routing(replica)) {
+            signIn(42L);
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("replica");
+            routing.write("INSERT INTO note (text) VALUES ('user 42')");
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("primary");
+
+            // Başka bir kullanıcının okumaları replikada kalır
+            signIn(7L);
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("replica");
+        }
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsStopped() throws Exception {
+        EmbeddedPostgres stoppable = startNode("replica");
+        try (Routing routing = new Routing(stoppable)) {
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("replica");
+
+            stoppable.close();
+            // Hikari 500 ms'den uzun boşta kalan bağlantıyı vermeden önce doğrular
+            Thread.sleep(600);
+
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("primary");
+            assertThat(routing.replica.isAvailable()).isFalse();
+            // Bekleme süresince replika denenmez
+            assertThat(routing.readOnly(WHICH_NODE_SQL)).isEqualTo("primary");
+        }
+    }
+
+    private static EmbeddedPostgres startNode(String name) throws Exception {
+        EmbeddedPostgres node = EmbeddedPostgres.builder().start();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(node.getPostgresDatabase());
+        jdbcTemplate.execute("CREATE TABLE node (name TEXT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE note (text TEXT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", name);
+        return node;
+    }
+
+    private static int countNotes(EmbeddedPostgres node, String text) {
+        return new JdbcTemplate(node.getPostgresDatabase())
+                .queryForObject("SELECT COUNT(*) FROM note WHERE text = ?", Integer.class, text);
+    }
+
+    private static void signIn(Long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user-" + userId, null, 0, UserRole.CUSTOMER);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static final class Routing implements AutoCloseable {
+
+        private final ReplicaPool replica;
+        private final ReadWriteRoutingDataSource routingDataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final TransactionTemplate transactionTemplate;
+
+        Routing(EmbeddedPostgres replicaNode) {
+            HikariDataSource replicaPool = new HikariDataSource();
+            replicaPool.setPoolName("replica-test");
+            replicaPool.setJdbcUrl(replicaNode.getJdbcUrl("postgres", "postgres"));
+            replicaPool.setUsername("postgres");
+            replicaPool.setMaximumPoolSize(2);
+            replicaPool.setConnectionTimeout(250);
+            replicaPool.setReadOnly(true);
+            replicaPool.setInitializationFailTimeout(-1);
+            replica = new ReplicaPool(replicaPool.getPoolName(), replicaPool, REPLICA_DOWN_COOLDOWN_MS);
+            routingDataSource = new ReadWriteRoutingDataSource(primary.getPostgresDatabase(), List.of(replica),
+                    ReplicaSelectionStrategy.ROUND_ROBIN, new ReadYourWritesTracker(READ_YOUR_WRITES_MS));
+            DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+
+        String readOnly(String sql) {
+            transactionTemplate.setReadOnly(true);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql, String.class));
+        }
+
+        String readWrite(String sql) {
+            transactionTemplate.setReadOnly(false);
+            return transactionTemplate.execute(status -> jdbcTemplate.queryForObject(sql, String.class));
+        }
+
+        void write(String sql) {
+            transactionTemplate.setReadOnly(false);
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.update(sql));
+        }
+
+        @Override
+        public void close() {
+            routingDataSource.destroy();
+        }
+    }
+}
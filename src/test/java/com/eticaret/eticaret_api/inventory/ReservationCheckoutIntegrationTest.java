@@ -0,0 +1,149 @@
+package com.eticaret.eticaret_api.inventory;
+
+import com.eticaret.eticaret_api.entity.CartItem;
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.entity.ShoppingCart;
+import com.eticaret.eticaret_api.entity.User;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import com.eticaret.eticaret_api.repository.UserRepository;
+import com.eticaret.eticaret_api.service.OrderService;
+import com.eticaret.eticaret_api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash satış modunda uçtan uca checkout: binlerce sipariş sayaçlardan ayrılır, commit
+ * olur ve toplu yazılır; sonunda veritabanındaki product.stock satılan miktar kadar
+ * düşmüş olmalıdır. Zamanlanmış flush bir saate çekilir, böylece tek yazım testin
+ * çağırdığı flush olur.
+ */
+@TestPropertySource(properties = {
+        "inventory.reservation.enabled=true",
+        "inventory.reservation.flush-interval-ms=3600000"})
+class ReservationCheckoutIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int BUYERS = 2_000;
+    private static final int INITIAL_STOCK = 3_000;
+    private static final int MAX_QUANTITY = 3;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void thousandsOfCheckoutsAreFlushedToTheProductStock() throws Exception {
+        Product product = createProduct(INITIAL_STOCK);
+        // 1, 2 ve 3 adetlik sepetler: toplam talep (~4000) stoktan fazladır
+        List<Long> buyers = createBuyersWithCart(product.getId());
+
+        int succeeded = checkoutInParallel(buyers);
+        inventoryReservationService.flush();
+
+        int sold = orderedQuantity(product.getId());
+        int stock = productRepository.findStockById(product.getId()).orElseThrow();
+        assertThat(orderedLines(product.getId())).isEqualTo(succeeded);
+        assertThat(stock).isEqualTo(INITIAL_STOCK - sold);
+        assertThat(inventoryReservationService.available(product.getId())).isEqualTo(stock);
+        // Reddedilen her alıcı için o anda kalan stok istenenden azdı; stok yalnızca azaldığı
+        // için en fazla MAX_QUANTITY - 1 adet satılmadan kalabilir
+        assertThat(stock).isBetween(0, MAX_QUANTITY - 1);
+    }
+
+    private Product createProduct(int stock) {
+        Product product = new Product();
+        product.setName("Flash " + UUID.randomUUID());
+        product.setPrice(25.0);
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    // BCrypt'li kayıt binlerce kullanıcı için çok yavaş; kullanıcı ve sepet doğrudan yazılır
+    private List<Long> createBuyersWithCart(Long productId) {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        return transactionTemplate.execute(status -> {
+            Product product = productRepository.getReferenceById(productId);
+            List<User> users = new ArrayList<>(BUYERS);
+            for (int i = 0; i < BUYERS; i++) {
+                User user = new User();
+                user.setUsername("flash-" + run + "-" + i);
+                user.setPassword("password-" + i);
+                user.setEmail("flash-" + run + "-" + i + "@example.com");
+                ShoppingCart cart = new ShoppingCart();
+                cart.setUser(user);
+                CartItem item = new CartItem();
+                item.setShoppingCart(cart);
+                item.setProduct(product);
+                item.setQuantity(1 + i % MAX_QUANTITY);
+                cart.getCartItems().add(item);
+                user.setShoppingCart(cart);
+                users.add(user);
+            }
+            return userRepository.saveAll(users).stream().map(User::getId).toList();
+        });
+    }
+
+    private int checkoutInParallel(List<Long> userIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrderDtoFromCart(userId, null);
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessageContaining("Insufficient stock");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(120, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int orderedLines(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private int orderedQuantity(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM order_item WHERE product_id = ?", Integer.class, productId);
+    }
+}
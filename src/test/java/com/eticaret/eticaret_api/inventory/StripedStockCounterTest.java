@@ -0,0 +1,99 @@
+package com.eticaret.eticaret_api.inventory;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Aynı ürün için sanal thread'lerden gelen eşzamanlı ayırma ve geri vermeler:
+ * sayaç hiçbir anda eksiye düşmez ve iş bitince toplam stok kaymaz.
+ */
+class StripedStockCounterTest {
+
+    private static final int STRIPES = 8;
+    private static final int TASKS = 20_000;
+
+    @Test
+    void reserveAndReleaseFromManyVirtualThreadsDoesNotDrift() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(STRIPES, 1_000);
+        AtomicLong lowestObserved = new AtomicLong(Long.MAX_VALUE);
+
+        runConcurrently(counter, lowestObserved, () -> {
+            int quantity = 1 + (int) (Thread.currentThread().threadId() % 5);
+            if (counter.tryReserve(quantity)) {
+                Thread.yield();
+                counter.release(quantity);
+            }
+        });
+
+        assertThat(lowestObserved.get()).isGreaterThanOrEqualTo(0);
+        assertThat(counter.available()).isEqualTo(1_000);
+    }
+
+    @Test
+    void reservationsWithoutReleaseSellExactlyTheStock() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(STRIPES, 500);
+        AtomicLong lowestObserved = new AtomicLong(Long.MAX_VALUE);
+        AtomicInteger reserved = new AtomicInteger();
+
+        runConcurrently(counter, lowestObserved, () -> {
+            if (counter.tryReserve(1)) {
+                reserved.incrementAndGet();
+            }
+        });
+
+        assertThat(lowestObserved.get()).isGreaterThanOrEqualTo(0);
+        assertThat(reserved.get()).isEqualTo(500);
+        assertThat(counter.available()).isZero();
+    }
+
+    @Test
+    void reservationLargerThanAnyStripeIsCollectedAcrossStripes() {
+        // 8 şeride 10 adet: hiçbir şeritte 2'den fazla yok
+        StripedStockCounter counter = new StripedStockCounter(STRIPES, 10);
+
+        assertThat(counter.tryReserve(11)).isFalse();
+        assertThat(counter.available()).isEqualTo(10);
+        assertThat(counter.tryReserve(10)).isTrue();
+        assertThat(counter.available()).isZero();
+    }
+
+    // Görevler aynı anda başlar; ayrı bir thread iş sürerken görülen en düşük stoğu kaydeder
+    private static void runConcurrently(StripedStockCounter counter, AtomicLong lowestObserved, Runnable task) throws Exception {
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread sampler = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                lowestObserved.accumulateAndGet(counter.available(), Math::min);
+            }
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>(TASKS);
+            for (int i = 0; i < TASKS; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            running.set(false);
+            sampler.join();
+        }
+        lowestObserved.accumulateAndGet(counter.available(), Math::min);
+    }
+}
@@ -0,0 +1,170 @@
+package com.eticaret.eticaret_api.outbox;
+
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.entity.User;
+import com.eticaret.eticaret_api.repository.OrderEventRepository;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import com.eticaret.eticaret_api.service.OrderService;
+import com.eticaret.eticaret_api.service.ShoppingCartService;
+import com.eticaret.eticaret_api.service.UserService;
+import com.eticaret.eticaret_api.support.PostgresIntegrationTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sipariş olaylarının outbox üzerinden teslimi. Test profilinde zamanlanmış dağıtım
+ * kapalıdır (outbox.dispatch.enabled=false); her test bağlamın bileşenleriyle kendi
+ * dağıtıcısını kurup elle çalıştırır.
+ */
+class OrderEventOutboxIntegrationTest extends PostgresIntegrationTest {
+
+    // Önceki testlerden kalan bekleyen olaylar da tek grupta gönderilsin
+    private static final int BATCH_SIZE = 10_000;
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private InMemoryOrderEventSink memorySink;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Product product;
+
+    @BeforeEach
+    void createProduct() {
+        product = new Product();
+        product.setName("Outbox " + UUID.randomUUID());
+        product.setPrice(40.0);
+        product.setStock(100);
+        product = productRepository.save(product);
+    }
+
+    @Test
+    void eventIsWrittenInTheOrderTransaction() {
+        Long orderId = placeOrder();
+
+        List<Map<String, Object>> events = eventsOf(orderId);
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).get("event_type")).isEqualTo("ORDER_CREATED");
+        assertThat(events.get(0).get("dispatched_at")).isNull();
+    }
+
+    @Test
+    void eventIsNotWrittenWhenTheOrderRollsBack() {
+        Long buyer = createBuyerWithCart();
+
+        Long orderId = transactionTemplate.execute(status -> {
+            Long id = orderService.createOrderDtoFromCart(buyer, null).getId();
+            status.setRollbackOnly();
+            return id;
+        });
+
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE id = ?", Integer.class, orderId)).isZero();
+        assertThat(eventsOf(orderId)).isEmpty();
+    }
+
+    @Test
+    void pendingEventsAreDeliveredAndMarkedInOneBatch() {
+        List<Long> orderIds = List.of(placeOrder(), placeOrder(), placeOrder());
+
+        dispatcher(memorySink).dispatchPending();
+
+        assertThat(memorySink.getDelivered()).extracting(OrderEventMessage::orderId).containsAll(orderIds);
+        // Grup tek UPDATE ile işaretlenir: tüm satırlar aynı dispatched_at'i taşır
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT dispatched_at) FROM order_event WHERE order_id = ANY (?)",
+                Integer.class, (Object) orderIds.toArray(new Long[0]))).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM order_event WHERE order_id = ANY (?) AND dispatched_at IS NULL",
+                Integer.class, (Object) orderIds.toArray(new Long[0]))).isZero();
+    }
+
+    @Test
+    void failingEventIsParkedWithoutBlockingTheOthers() {
+        Long poisonOrderId = placeOrder();
+        Long healthyOrderId = placeOrder();
+        AtomicInteger poisonDeliveries = new AtomicInteger();
+        OrderEventSink sink = events -> {
+            if (events.stream().anyMatch(event -> event.orderId().equals(poisonOrderId))) {
+                poisonDeliveries.incrementAndGet();
+                throw new IllegalStateException("Warehouse rejected order " + poisonOrderId);
+            }
+            memorySink.deliver(events);
+        };
+        OrderEventDispatcher dispatcher = dispatcher(sink);
+
+        dispatcher.dispatchPending();
+        assertThat(memorySink.getDelivered()).extracting(OrderEventMessage::orderId).contains(healthyOrderId);
+        assertThat(eventsOf(healthyOrderId).get(0).get("dispatched_at")).isNotNull();
+        assertThat(eventsOf(poisonOrderId).get(0).get("attempts")).isEqualTo(1);
+
+        for (int run = 1; run < MAX_ATTEMPTS + 2; run++) {
+            dispatcher.dispatchPending();
+        }
+
+        Map<String, Object> poison = eventsOf(poisonOrderId).get(0);
+        assertThat(poison.get("attempts")).isEqualTo(MAX_ATTEMPTS);
+        assertThat(poison.get("parked_at")).isNotNull();
+        assertThat(poison.get("dispatched_at")).isNull();
+        assertThat((String) poison.get("last_error")).contains("Warehouse rejected");
+        // Park edilen olay ne tek başına ne de grup içinde tekrar gönderilir
+        int deliveriesWhenParked = poisonDeliveries.get();
+        dispatcher.dispatchPending();
+        assertThat(poisonDeliveries.get()).isEqualTo(deliveriesWhenParked);
+    }
+
+    // Beklemesiz tekrar: her tur bir deneme sayar
+    private OrderEventDispatcher dispatcher(OrderEventSink sink) {
+        return new OrderEventDispatcher(jdbcTemplate, transactionTemplate, orderEventRepository, sink,
+                new SimpleMeterRegistry(), true, BATCH_SIZE, 1, MAX_ATTEMPTS, 0, 72);
+    }
+
+    private Long placeOrder() {
+        return orderService.createOrderDtoFromCart(createBuyerWithCart(), null).getId();
+    }
+
+    private Long createBuyerWithCart() {
+        String name = "outbox-" + UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(name);
+        user.setPassword("password-123");
+        user.setEmail(name + "@example.com");
+        Long userId = userService.registerUser(user).getId();
+        shoppingCartService.addProductToCart(userId, product.getId(), 1);
+        return userId;
+    }
+
+    private List<Map<String, Object>> eventsOf(Long orderId) {
+        return jdbcTemplate.queryForList(
+                "SELECT event_type, dispatched_at, attempts, parked_at, last_error FROM order_event WHERE order_id = ?",
+                orderId);
+    }
+}
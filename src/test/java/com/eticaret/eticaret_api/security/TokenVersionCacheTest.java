@@ -0,0 +1,42 @@
+package com.eticaret.eticaret_api.security;
+
+import com.eticaret.eticaret_api.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bilinmeyen kullanıcılar da önbelleğe alınır: silinmiş bir kullanıcının token'ıyla
+ * gelen istekler her seferinde veritabanına gitmez ve hiçbir versiyonla eşleşmez.
+ */
+class TokenVersionCacheTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TokenVersionCache cache = new TokenVersionCache(userRepository, 100, 300);
+
+    @Test
+    void unknownUserIsLookedUpOnceAndNeverAccepted() {
+        when(userRepository.findTokenVersionById(7L)).thenReturn(Optional.empty());
+
+        assertThat(cache.isCurrent(7L, 0)).isFalse();
+        assertThat(cache.isCurrent(7L, 0)).isFalse();
+        assertThat(cache.isCurrent(7L, TokenVersionCache.UNKNOWN_USER)).isFalse();
+
+        verify(userRepository, times(1)).findTokenVersionById(7L);
+    }
+
+    @Test
+    void currentVersionIsAcceptedAndBumpedVersionRejectsOldTokens() {
+        when(userRepository.findTokenVersionById(3L)).thenReturn(Optional.of(0));
+
+        assertThat(cache.isCurrent(3L, 0)).isTrue();
+        cache.update(3L, 1);
+        assertThat(cache.isCurrent(3L, 0)).isFalse();
+        assertThat(cache.isCurrent(3L, 1)).isTrue();
+    }
+}
@@ -0,0 +1,133 @@
+package com.eticaret.eticaret_api.service;
+
+import com.eticaret.eticaret_api.entity.Product;
+import com.eticaret.eticaret_api.entity.User;
+import com.eticaret.eticaret_api.repository.ProductRepository;
+import com.eticaret.eticaret_api.support.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Sınırlı stoklu ürüne aynı anda gelen checkout'lar: stok hiçbir zaman eksiye düşmez
+ * (fazla satış yok) ve satılan miktar ile kalan stok toplamı başlangıç stoğuna eşittir
+ * (kayıp düşüm yok).
+ */
+class ConcurrentCheckoutIntegrationTest extends PostgresIntegrationTest {
+
+    private static final int BUYERS = 32;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ShoppingCartService shoppingCartService;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void parallelCheckoutsSellExactlyTheAvailableStock() throws Exception {
+        Product product = createProduct(10);
+        List<Long> buyers = createBuyersWithCart(product.getId(), 1);
+
+        int succeeded = checkoutInParallel(buyers);
+
+        assertThat(succeeded).isEqualTo(10);
+        assertThat(productRepository.findStockById(product.getId())).contains(0);
+        assertThat(orderedLines(product.getId())).isEqualTo(10);
+        assertThat(orderedQuantity(product.getId())).isEqualTo(10);
+    }
+
+    @Test
+    void multiUnitCheckoutsNeverOversellTheRemainder() throws Exception {
+        Product product = createProduct(10);
+        List<Long> buyers = createBuyersWithCart(product.getId(), 3);
+
+        int succeeded = checkoutInParallel(buyers);
+
+        // 3'er adetle 10 stoktan en fazla 3 sipariş çıkar; kalan 1 adet satılamaz
+        assertThat(succeeded).isEqualTo(3);
+        assertThat(productRepository.findStockById(product.getId())).contains(1);
+        assertThat(orderedLines(product.getId())).isEqualTo(3);
+        assertThat(orderedQuantity(product.getId()) + 1).isEqualTo(10);
+    }
+
+    private Product createProduct(int stock) {
+        Product product = new Product();
+        product.setName("Flash " + UUID.randomUUID());
+        product.setPrice(25.0);
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    private List<Long> createBuyersWithCart(Long productId, int quantity) {
+        List<Long> userIds = new ArrayList<>(BUYERS);
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        for (int i = 0; i < BUYERS; i++) {
+            User user = new User();
+            user.setUsername("buyer-" + run + "-" + i);
+            user.setPassword("password-" + i);
+            user.setEmail("buyer-" + run + "-" + i + "@example.com");
+            Long userId = userService.registerUser(user).getId();
+            shoppingCartService.addProductToCart(userId, productId, quantity);
+            userIds.add(userId);
+        }
+        return userIds;
+    }
+
+    // Tüm checkout'lar aynı anda başlar; stok yetmeyenler hata ile döner
+    private int checkoutInParallel(List<Long> userIds) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(userIds.size());
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>(userIds.size());
+            for (Long userId : userIds) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.createOrderDtoFromCart(userId, null);
+                        return true;
+                    } catch (RuntimeException e) {
+                        assertThat(e).hasMessageContaining("Insufficient stock");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+            int succeeded = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private int orderedLines(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_item WHERE product_id = ?", Integer.class, productId);
+    }
+
+    private int orderedQuantity(Long productId) {
+        return jdbcTemplate.queryForObject("SELECT COALESCE(SUM(quantity), 0) FROM order_item WHERE product_id = ?", Integer.class, productId);
+    }
+}
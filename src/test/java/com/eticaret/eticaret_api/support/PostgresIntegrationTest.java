@@ -0,0 +1,36 @@
+package com.eticaret.eticaret_api.support;
+
+import com.eticaret.eticaret_api.EticaretApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Entegrasyon testlerinin ortak tabanı: JVM başına bir kez başlatılan gömülü PostgreSQL
+ * üzerinde tam uygulama bağlamı. Şema Flyway migration'larıyla kurulur; testler aynı
+ * veritabanını paylaştığı için her test kendi kullanıcı ve ürünlerini oluşturur.
+ */
+@SpringBootTest(classes = EticaretApplication.class)
+@ActiveProfiles("test")
+public abstract class PostgresIntegrationTest {
+
+    private static final EmbeddedPostgres POSTGRES = start();
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> POSTGRES.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+    }
+
+    private static EmbeddedPostgres start() {
+        try {
+            return EmbeddedPostgres.builder().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded PostgreSQL could not be started", e);
+        }
+    }
+}